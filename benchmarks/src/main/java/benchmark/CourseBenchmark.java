@@ -0,0 +1,86 @@
+package benchmark;
+
+import entity.Course;
+import entity.Student;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import service.CourseService;
+import util.AIHelper;
+import util.CourseFeatureTable;
+
+/**
+ * Catalog search and recommendations against a catalog of {@code size} courses. Recommendations
+ * are measured both against the service's cached feature table (what the application does) and
+ * from a plain course list, which rebuilds the table on every call.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class CourseBenchmark {
+
+    private static final int SAMPLES = 1024;  // power of two
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private CourseService courseService;
+    private CourseFeatureTable table;
+    private List<Course> catalog;
+    private Student student;
+    private final String[] queries = new String[SAMPLES];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Datasets.dataDirectory();
+        Datasets.write(0, size);
+        courseService = new CourseService();
+        table = courseService.getFeatureTable();
+        catalog = courseService.getAllCourses();
+
+        student = new Student("STU9999999", "Bench Student", "bench@university.edu",
+                LocalDate.of(2003, 5, 15), "Computer Science", 3);
+        Random random = new Random(7);
+        for (int i = 0; i < 8; i++) {
+            student.completeCourse(catalog.get(random.nextInt(size)).getCourseId());
+            student.enrollInCourse(catalog.get(random.nextInt(size)).getCourseId());
+        }
+        for (int i = 0; i < SAMPLES; i++) {
+            queries[i] = catalog.get(random.nextInt(size)).getCourseId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Datasets.clear();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int next() {
+            return next++ & (SAMPLES - 1);
+        }
+    }
+
+    @Benchmark
+    public List<Course> searchCourses(Cursor cursor) {
+        return courseService.searchCourses(queries[cursor.next()]);
+    }
+
+    @Benchmark
+    public List<String> recommendCourses() {
+        return AIHelper.recommendCourses(student, table);
+    }
+
+    @Benchmark
+    public List<String> recommendCoursesFromList() {
+        return AIHelper.recommendCourses(student, catalog);
+    }
+}
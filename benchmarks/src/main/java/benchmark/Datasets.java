@@ -0,0 +1,64 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import service.DatasetGenerator;
+
+/**
+ * Scratch data directory for the benchmarks, filled by {@link DatasetGenerator}. The services
+ * resolve their files against the {@code sms.data.dir} system property the first time one of
+ * them is used, so {@link #dataDirectory()} must run before that - every benchmark state calls
+ * it first thing in its setup. Datasets are deterministic per size.
+ */
+final class Datasets {
+
+    private static final long SEED = 42;
+    private static final int GRADUATE_EVERY = 10;
+
+    private static Path directory;
+
+    private Datasets() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /** The scratch data directory of this JVM, created and registered on first call. */
+    static synchronized File dataDirectory() {
+        if (directory == null) {
+            try {
+                directory = Files.createTempDirectory("sms-bench");
+                directory.toFile().deleteOnExit();  // empty by then: the states clear it on teardown
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            System.setProperty("sms.data.dir", directory.toString());
+        }
+        return directory.toFile();
+    }
+
+    /** Removes every data file, so the next service starts from an empty roster and catalog. */
+    static void clear() {
+        File[] files = dataDirectory().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Replaces the data files with {@code students} students (every tenth a graduate) and
+     * {@code courses} courses enrolled close to capacity.
+     */
+    static void write(int students, int courses) {
+        clear();
+        int graduates = students / GRADUATE_EVERY;
+        try {
+            new DatasetGenerator(SEED, students - graduates, graduates, courses).writeTo(dataDirectory());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
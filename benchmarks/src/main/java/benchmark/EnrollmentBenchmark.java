@@ -0,0 +1,58 @@
+package benchmark;
+
+import entity.Course;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import service.DatasetGenerator;
+
+/**
+ * {@link Course#addStudent} on a course that already holds {@code size} students. Each operation
+ * enrolls one more student and drops them again, so the course stays the same size. Stops at
+ * 100k seats: filling the course goes through addStudent too, which copies the member array
+ * on every insert.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnrollmentBenchmark {
+
+    private static final int SAMPLES = 1024;  // power of two
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private Course course;
+    private final String[] newcomers = new String[SAMPLES];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        course = new Course("CS101", "Intro to Programming", "Dr. Smith", 3, "Computer Science");
+        course.setMaxCapacity(size + 1);
+        for (int i = 0; i < size; i++) {
+            course.addStudent(DatasetGenerator.studentId(i));
+        }
+        for (int i = 0; i < SAMPLES; i++) {
+            newcomers[i] = DatasetGenerator.studentId(size + i);  // registered on first use, like any new student
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int next() {
+            return next++ & (SAMPLES - 1);
+        }
+    }
+
+    @Benchmark
+    public boolean addStudent(Cursor cursor) {
+        String studentId = newcomers[cursor.next()];
+        boolean added = course.addStudent(studentId);
+        course.removeStudent(studentId);
+        return added;
+    }
+}
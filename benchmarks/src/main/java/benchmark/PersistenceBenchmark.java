@@ -0,0 +1,54 @@
+package benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import service.StorageFormat;
+import service.StudentService;
+
+/**
+ * Full roster load (service construction) and save (checkpoint) in both storage formats.
+ * One operation reads or writes the whole dataset, so scores are in operations per second
+ * and {@code -prof gc} reports the bytes allocated per load.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class PersistenceBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"CSV", "BINARY"})
+    public StorageFormat format;
+
+    private StudentService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Datasets.dataDirectory();
+        Datasets.write(size, 0);
+        if (format == StorageFormat.BINARY) {
+            StudentService.convertCsvToSnapshot();
+        }
+        service = new StudentService(false, format);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Datasets.clear();
+    }
+
+    @Benchmark
+    public StudentService load() {
+        return new StudentService(false, format);
+    }
+
+    @Benchmark
+    public void save() {
+        service.checkpoint();
+    }
+}
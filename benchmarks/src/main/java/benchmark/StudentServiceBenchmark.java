@@ -0,0 +1,80 @@
+package benchmark;
+
+import entity.Student;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import service.StudentService;
+
+/**
+ * Roster lookups against a loaded {@link StudentService}: ID lookup, substring search (one hit
+ * and one surname shared by about 1/30 of the roster) and the statistics summary.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class StudentServiceBenchmark {
+
+    private static final int SAMPLES = 1024;  // power of two
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private StudentService service;
+    private final String[] ids = new String[SAMPLES];
+    private final String[] surnames = new String[SAMPLES];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Datasets.dataDirectory();
+        Datasets.write(size, 0);
+        service = new StudentService(false);
+
+        List<Student> roster = service.getAllStudents();
+        Random random = new Random(7);
+        for (int i = 0; i < SAMPLES; i++) {
+            Student student = roster.get(random.nextInt(roster.size()));
+            ids[i] = student.getId();
+            surnames[i] = student.getName().substring(student.getName().lastIndexOf(' ') + 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Datasets.clear();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int next() {
+            return next++ & (SAMPLES - 1);
+        }
+    }
+
+    @Benchmark
+    public Student findStudentById(Cursor cursor) {
+        return service.findStudentById(ids[cursor.next()]);
+    }
+
+    @Benchmark
+    public List<Student> searchStudentsById(Cursor cursor) {
+        return service.searchStudents(ids[cursor.next()]);
+    }
+
+    @Benchmark
+    public List<Student> searchStudentsBySurname(Cursor cursor) {
+        return service.searchStudents(surnames[cursor.next()]);
+    }
+
+    @Benchmark
+    public Map<String, Object> getStatistics() {
+        return service.getStatistics();
+    }
+}
@@ -10,6 +10,13 @@ public class Main {
     private static final Scanner scanner = new Scanner(System.in);
     private static final StudentService studentService = new StudentService();
     private static final CourseService courseService = new CourseService();
+    private static final EnrollmentService enrollmentService =
+            new EnrollmentService(studentService, courseService);
+    private static final RecommendationCache recommendationCache = new RecommendationCache(1024);
+
+    static {
+        courseService.addAvailabilityListener(recommendationCache::courseAvailabilityChanged);
+    }
 
     public static void main(String[] args) {
         System.out.println("╔════════════════════════════════════════════════╗");
@@ -48,6 +55,8 @@ public class Main {
                     break;
                 case 0:
                     running = false;
+                    studentService.close();  // checkpoint the journal into the CSV files
+                    enrollmentService.close();
                     System.out.println("\n✓ Exiting system. Thank you!");
                     break;
                 default:
@@ -285,7 +294,6 @@ public class Main {
         }
 
         Student student = students.get(choice - 1);
-        List<Course> allCourses = courseService.getAllCourses();
 
         System.out.println("\n" + "-".repeat(50));
         System.out.println("ANALYZING: " + student.getName());
@@ -295,7 +303,8 @@ public class Main {
         System.out.println("GPA: " + student.getGpa());
         System.out.println("Current Courses: " + student.getEnrolledCourses().size());
 
-        List<String> recommendations = AIHelper.recommendCourses(student, allCourses);
+        List<String> recommendations = AIHelper.format(recommendationCache.get(
+                student, courseService.getFeatureTable(), AIHelper.DEFAULT_LIMIT));
 
         System.out.println("\n" + "-".repeat(50));
         System.out.println("TOP RECOMMENDATIONS");
@@ -463,8 +472,20 @@ public class Main {
         gradeDistribution.forEach((grade, count) ->
                 System.out.println("  " + grade + ": " + count + " students"));
 
-        System.out.println("\nTotal Courses: " + courseService.getAllCourses().size());
+        System.out.println("\nTotal Courses: " + courseService.getCourseCount());
         System.out.println("Total Persons Created: " + Person.getPersonCount());
+        System.out.println("Recommendation Cache: " + recommendationCache.getHitCount() + " hits, "
+                + recommendationCache.getMissCount() + " misses");
+
+        System.out.println("\nOperation Latency (microseconds):");
+        for (OperationMetrics operation : Metrics.getOperations()) {
+            if (operation.getCount() == 0) {
+                continue;
+            }
+            System.out.println(String.format("  %-38s %8d calls  p50 %9.1f  p99 %9.1f  max %9.1f",
+                    operation.getName(), operation.getCount(),
+                    operation.getP50Micros(), operation.getP99Micros(), operation.getMaxMicros()));
+        }
     }
 
     private static void createStudentDemo() throws InvalidDataException {
@@ -549,15 +570,14 @@ public class Main {
 
     private static void initializeSampleData() {
         try {
-            if (studentService.getAllStudents().isEmpty()) {
+            boolean newStudents = studentService.getAllStudents().isEmpty();
+            if (newStudents) {
                 Student s1 = new Student(
                         "STU001", "Divya Jain", "divya@university.edu",
                         LocalDate.of(2003, 5, 15), "Computer Science", 3
                 );
                 s1.setGpa(3.6);
                 s1.setAttendancePercentage(92);
-                s1.enrollInCourse("CS101");
-                s1.enrollInCourse("MATH201");
                 studentService.addStudent(s1);
 
                 Student s2 = new Student(
@@ -598,6 +618,12 @@ public class Main {
                 Course c5 = new Course("PHYS101", "Physics I", "Dr. Wilson", 4, "Physics");
                 courseService.addCourse(c5);
             }
+
+            if (newStudents) {
+                // Through the service, so both sides are updated and the enrollment is persisted
+                enrollmentService.enroll("STU001", "CS101");
+                enrollmentService.enroll("STU001", "MATH201");
+            }
         } catch (Exception e) {
             System.out.println("exception in initializeSampleData");
         }
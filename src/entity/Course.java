@@ -1,22 +1,41 @@
 package entity;
 
 import inter_face.Searchable;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import util.EnrollmentEvent;
+import util.IdRegistry;
+import util.SortedIntSet;
+import util.SymbolTable;
 
 public class Course implements Searchable {
 
+    // Rejection reasons reported in EnrollmentEvents
+    private static final String REJECT_INVALID_ID = "invalid student ID";
+    private static final String REJECT_ALREADY_ENROLLED = "already enrolled";
+    private static final String REJECT_FULL = "course full";
+
     private final String courseId;  // final = course ID never changes
-    private String courseName;
-    private String instructor;
-    private int credits;
+    private volatile String courseName;
+    private volatile String instructor;  // interned in SymbolTable
+    private volatile int credits;
+
+    // Capacity in the high 32 bits, enrolled count in the low 32: one CAS checks and takes a seat,
+    // and a capacity change can never slip under a concurrent enrollment
+    private final AtomicLong seats;
+    private final SortedIntSet enrolledStudents;  // numbers from IdRegistry.STUDENTS: O(log n) membership
 
-    private int maxCapacity;
-    private final List<String> enrolledStudentIds;  // final reference = can't reassign list
+    private volatile SymbolTable.Symbol department;  // shared; null = no department
 
-    private String department;
+    // Notified after any setter changes this course (e.g. so a service can re-index it)
+    private volatile Consumer<? super Course> changeListener;
+    // Notified when an enrollment fills this course or a drop frees a seat in it again
+    private volatile Consumer<? super Course> availabilityListener;
 
+    // Held for writing by update(), so read() never observes a multi-field change half-applied
+    private final StateLock stateLock = new StateLock();
 
     public Course(String courseId, String courseName, String instructor, int credits) {
         // Validation
@@ -32,10 +51,10 @@ public class Course implements Searchable {
 
         this.courseId = courseId;
         this.courseName = courseName;
-        this.instructor = instructor;
+        this.instructor = SymbolTable.intern(instructor);
         this.credits = credits;
-        this.maxCapacity = 30;  // Default capacity
-        this.enrolledStudentIds = new ArrayList<>();
+        this.seats = new AtomicLong(pack(30, 0));  // Default capacity
+        this.enrolledStudents = new SortedIntSet();
         this.department = null;  // Optional, set via setter
     }
 
@@ -43,7 +62,7 @@ public class Course implements Searchable {
     public Course(String courseId, String courseName, String instructor,
                   int credits, String department) {
         this(courseId, courseName, instructor, credits);  // Constructor chaining
-        this.department = department;
+        this.department = SymbolTable.of(department);
     }
 
     public String getCourseId() {
@@ -63,16 +82,24 @@ public class Course implements Searchable {
     }
 
     public int getMaxCapacity() {
-        return maxCapacity;
+        return capacityOf(seats.get());
     }
 
 
+    // Read-only snapshot; enrollment order is not kept
     public List<String> getEnrolledStudentIds() {
-        return Collections.unmodifiableList(enrolledStudentIds);
+        return IdRegistry.STUDENTS.idsOf(enrolledStudents.toArray());
     }
 
     public String getDepartment() {
-        return department;
+        SymbolTable.Symbol symbol = department;
+        return symbol == null ? null : symbol.getValue();
+    }
+
+    /** Case-insensitive code of the department, or {@link SymbolTable#NO_CODE} if there is none. */
+    public int getDepartmentCode() {
+        SymbolTable.Symbol symbol = department;
+        return symbol == null ? SymbolTable.NO_CODE : symbol.getCode();
     }
 
     // Setters
@@ -82,10 +109,12 @@ public class Course implements Searchable {
             throw new IllegalArgumentException("Course name cannot be null or empty");
         }
         this.courseName = courseName;
+        fireChanged();
     }
 
     public void setInstructor(String instructor) {
-        this.instructor = instructor;  // Can be null
+        this.instructor = SymbolTable.intern(instructor);  // Can be null
+        fireChanged();
     }
 
     public void setCredits(int credits) {
@@ -93,49 +122,170 @@ public class Course implements Searchable {
             throw new IllegalArgumentException("Credits must be positive");
         }
         this.credits = credits;
+        fireChanged();
     }
 
     public void setMaxCapacity(int maxCapacity) {
-        if (maxCapacity < enrolledStudentIds.size()) {
-            throw new IllegalArgumentException(
-                    "Max capacity cannot be less than current enrollment"
-            );
-        }
-        this.maxCapacity = maxCapacity;
+        long current;
+        do {
+            current = seats.get();
+            if (maxCapacity < enrolledOf(current)) {
+                throw new IllegalArgumentException(
+                        "Max capacity cannot be less than current enrollment"
+                );
+            }
+        } while (!seats.compareAndSet(current, pack(maxCapacity, enrolledOf(current))));
+        fireChanged();
     }
 
     public void setDepartment(String department) {
-        this.department = department;
+        this.department = SymbolTable.of(department);
+        fireChanged();
+    }
+
+    /**
+     * Applies several setter calls as one change: readers using {@link #read} see all of them
+     * or none, and the change listener fires once at the end. Not reentrant: the changes must
+     * not call read() or update() on the same object.
+     */
+    public void update(Runnable changes) {
+        stateLock.update(changes);
+        fireChanged();
+    }
+
+    /**
+     * Reads several fields consistently with respect to {@link #update}. Lock-free unless an
+     * update races with it, in which case the read is retried under the read lock.
+     */
+    public <R> R read(Supplier<R> reader) {
+        return stateLock.read(reader);
+    }
+
+    public void setChangeListener(Consumer<? super Course> changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /** Seat-only changes (isFull() flipping) go here instead of to the change listener. */
+    public void setAvailabilityListener(Consumer<? super Course> availabilityListener) {
+        this.availabilityListener = availabilityListener;
+    }
+
+    private void fireChanged() {
+        if (stateLock.isUpdating()) {
+            return;  // inside update(), which notifies once when it is done
+        }
+        Consumer<? super Course> listener = changeListener;
+        if (listener != null) {
+            listener.accept(this);
+        }
+    }
+
+    private void fireAvailabilityChanged() {
+        Consumer<? super Course> listener = availabilityListener;
+        if (listener != null) {
+            listener.accept(this);
+        }
     }
 
     public boolean isFull() {
-        return enrolledStudentIds.size() >= maxCapacity;
+        long current = seats.get();
+        return enrolledOf(current) >= capacityOf(current);
     }
 
     public int getAvailableSeats() {
-        return maxCapacity - enrolledStudentIds.size();
+        long current = seats.get();
+        return capacityOf(current) - enrolledOf(current);
     }
 
 
+    /**
+     * Lock-free and safe to call from many threads: never enrolls past the capacity and never
+     * enrolls the same student twice. Use EnrollmentService to update the student side as well.
+     * The availability listener fires when this enrollment fills the course.
+     */
     public boolean addStudent(String studentId) {
+        EnrollmentEvent event = new EnrollmentEvent();
+        event.begin();
+        String rejection = enroll(studentId);
+        event.end();
+        if (event.shouldCommit()) {
+            event.courseId = courseId;
+            event.studentId = studentId;
+            event.accepted = rejection == null;
+            event.reason = rejection == null ? "" : rejection;
+            event.commit();
+        }
+        return rejection == null;
+    }
+
+    // Null on success, otherwise why the seat was refused
+    private String enroll(String studentId) {
         if (studentId == null || studentId.trim().isEmpty()) {
-            return false;
+            return REJECT_INVALID_ID;
         }
-        if (isFull()) {
-            return false;
+        int student = IdRegistry.STUDENTS.register(studentId);
+        if (enrolledStudents.contains(student)) {
+            return REJECT_ALREADY_ENROLLED;
+        }
+        // Seat first, membership second: a member always holds a seat, so removeStudent can
+        // free one for every membership it removes and the count never drops below the truth
+        long reserved = reserveSeat();
+        if (reserved < 0) {
+            return REJECT_FULL;
+        }
+        if (!enrolledStudents.add(student)) {
+            seats.decrementAndGet();  // a concurrent call enrolled this student: give the seat back
+            return REJECT_ALREADY_ENROLLED;
         }
-        if (enrolledStudentIds.contains(studentId)) {
-            return false;  // Already enrolled
+        if (enrolledOf(reserved) == capacityOf(reserved)) {
+            fireAvailabilityChanged();  // isFull() just turned true
         }
-        return enrolledStudentIds.add(studentId);
+        return null;
     }
 
     public boolean removeStudent(String studentId) {
-        return enrolledStudentIds.remove(studentId);
+        int student = IdRegistry.STUDENTS.find(studentId);
+        if (student == IdRegistry.NO_NUMBER || !enrolledStudents.remove(student)) {
+            return false;  // not a member, or a concurrent call removed it and frees the seat
+        }
+        long released = seats.decrementAndGet();  // enrolled count is the low half, so this frees one seat
+        if (enrolledOf(released) + 1 == capacityOf(released)) {
+            fireAvailabilityChanged();  // isFull() just turned false
+        }
+        return true;
+    }
+
+    public boolean isEnrolled(String studentId) {
+        int student = IdRegistry.STUDENTS.find(studentId);
+        return student != IdRegistry.NO_NUMBER && enrolledStudents.contains(student);
     }
 
     public int getEnrollmentCount() {
-        return enrolledStudentIds.size();
+        return enrolledOf(seats.get());
+    }
+
+    // New seat state, or -1 if the course is full
+    private long reserveSeat() {
+        long current;
+        do {
+            current = seats.get();
+            if (enrolledOf(current) >= capacityOf(current)) {
+                return -1;
+            }
+        } while (!seats.compareAndSet(current, current + 1));
+        return current + 1;
+    }
+
+    private static long pack(int capacity, int enrolled) {
+        return ((long) capacity << 32) | (enrolled & 0xFFFFFFFFL);
+    }
+
+    private static int capacityOf(long seats) {
+        return (int) (seats >>> 32);
+    }
+
+    private static int enrolledOf(long seats) {
+        return (int) seats;
     }
 
 
@@ -148,15 +298,20 @@ public class Course implements Searchable {
         return courseId.toLowerCase().contains(lowerQuery) ||
                 courseName.toLowerCase().contains(lowerQuery) ||
                 (instructor != null && instructor.toLowerCase().contains(lowerQuery)) ||
-                (department != null && department.toLowerCase().contains(lowerQuery));
+                (department != null && department.getValue().toLowerCase().contains(lowerQuery));
+    }
+
+    @Override
+    public String[] getSearchableFields() {
+        return read(() -> new String[] {courseId, courseName, instructor, getDepartment()});
     }
 
     @Override
     public String getSearchableInfo() {
-        return String.format("ID: %s | Name: %s | Instructor: %s | Credits: %d | Seats: %d/%d",
+        return read(() -> String.format("ID: %s | Name: %s | Instructor: %s | Credits: %d | Seats: %d/%d",
                 courseId, courseName,
                 instructor != null ? instructor : "TBD",
-                credits, enrolledStudentIds.size(), maxCapacity);
+                credits, getEnrollmentCount(), getMaxCapacity()));
     }
 
 
@@ -166,14 +321,14 @@ public class Course implements Searchable {
         System.out.println("Course Name: " + courseName);
         System.out.println("Instructor: " + (instructor != null ? instructor : "TBD"));
         System.out.println("Credits: " + credits);
-        System.out.println("Department: " + (department != null ? department : "N/A"));
-        System.out.println("Enrollment: " + enrolledStudentIds.size() + "/" + maxCapacity);
+        System.out.println("Department: " + (department != null ? department.getValue() : "N/A"));
+        System.out.println("Enrollment: " + getEnrollmentCount() + "/" + getMaxCapacity());
         System.out.println("Available Seats: " + getAvailableSeats());
     }
 
     @Override
     public String toString() {
-        return String.format("Course{id='%s', name='%s', enrolled=%d/%d}",
-                courseId, courseName, enrolledStudentIds.size(), maxCapacity);
+        return read(() -> String.format("Course{id='%s', name='%s', enrolled=%d/%d}",
+                courseId, courseName, getEnrollmentCount(), getMaxCapacity()));
     }
 }
@@ -1,14 +1,16 @@
 package entity;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import util.SymbolTable;
 
 
 public class GraduateStudent extends Student {
 
-    private String thesisTitle;
-    private String advisor;
-    private String researchArea;
-    private boolean thesisSubmitted;
+    private volatile String thesisTitle;
+    private volatile String advisor;       // interned in SymbolTable
+    private volatile String researchArea;  // interned in SymbolTable
+    private volatile boolean thesisSubmitted;
 
     public GraduateStudent(String id, String name, String email, LocalDate dateOfBirth,
                            String major, int semester, String thesisTitle, String advisor) {
@@ -22,8 +24,8 @@ public class GraduateStudent extends Student {
         }
 
         this.thesisTitle = thesisTitle;
-        this.advisor = advisor;
-        this.researchArea = major;
+        this.advisor = SymbolTable.intern(advisor);
+        this.researchArea = SymbolTable.intern(major);
         this.thesisSubmitted = false;  // Default: thesis not yet submitted
     }
 
@@ -37,6 +39,7 @@ public class GraduateStudent extends Student {
             throw new IllegalArgumentException("Thesis title cannot be null or empty");
         }
         this.thesisTitle = thesisTitle;
+        fireChanged();
     }
 
     public String getAdvisor() {
@@ -47,7 +50,8 @@ public class GraduateStudent extends Student {
         if (advisor == null || advisor.trim().isEmpty()) {
             throw new IllegalArgumentException("Advisor cannot be null or empty");
         }
-        this.advisor = advisor;
+        this.advisor = SymbolTable.intern(advisor);
+        fireChanged();
     }
 
     public String getResearchArea() {
@@ -55,7 +59,8 @@ public class GraduateStudent extends Student {
     }
 
     public void setResearchArea(String researchArea) {
-        this.researchArea = researchArea;
+        this.researchArea = SymbolTable.intern(researchArea);
+        fireChanged();
     }
 
     public boolean isThesisSubmitted() {
@@ -64,14 +69,17 @@ public class GraduateStudent extends Student {
 
     public void setThesisSubmitted(boolean thesisSubmitted) {
         this.thesisSubmitted = thesisSubmitted;
+        fireChanged();
     }
 
 
     public void submitThesis() {
-        if (thesisSubmitted) {
-            throw new IllegalStateException("Thesis already submitted");
-        }
-        this.thesisSubmitted = true;
+        update(() -> {  // check-then-set must not race with another submitter
+            if (thesisSubmitted) {
+                throw new IllegalStateException("Thesis already submitted");
+            }
+            this.thesisSubmitted = true;
+        });
     }
 
     @Override
@@ -115,16 +123,28 @@ public class GraduateStudent extends Student {
                 (researchArea != null && researchArea.toLowerCase().contains(lowerQuery));
     }
 
+    @Override
+    public String[] getSearchableFields() {
+        return read(() -> {
+            String[] base = super.getSearchableFields();
+            String[] fields = Arrays.copyOf(base, base.length + 3);
+            fields[base.length] = thesisTitle;
+            fields[base.length + 1] = advisor;
+            fields[base.length + 2] = researchArea;
+            return fields;
+        });
+    }
+
     @Override
     public String getSearchableInfo() {
-        return String.format("%s | Thesis: %s | Advisor: %s",
-                super.getSearchableInfo(), thesisTitle, advisor);
+        return read(() -> String.format("%s | Thesis: %s | Advisor: %s",
+                super.getSearchableInfo(), thesisTitle, advisor));
     }
 
     @Override
     public String toString() {
-        return String.format("GraduateStudent{id='%s', name='%s', thesis='%s', advisor='%s'}",
-                getId(), getName(), thesisTitle, advisor);
+        return read(() -> String.format("GraduateStudent{id='%s', name='%s', thesis='%s', advisor='%s'}",
+                getId(), getName(), thesisTitle, advisor));
     }
 }
 
@@ -2,15 +2,24 @@ package entity;
 
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public abstract class Person {
 
     private final String id;
-    private String name;
-    private String email;
+    private volatile String name;
+    private volatile String email;
     private final LocalDate dateOfBirth;
 
-    private static int personCount = 0;
+    private static final AtomicInteger personCount = new AtomicInteger();  // CSV rows are parsed in parallel
+
+    // Notified after any setter changes this object (e.g. so a service can re-index it)
+    private volatile Consumer<? super Person> changeListener;
+
+    // Held for writing by update(), so read() never observes a multi-field change half-applied
+    private final StateLock stateLock = new StateLock();
 
     protected Person(String id, String name, String email, LocalDate dateOfBirth) {
 
@@ -28,7 +37,7 @@ public abstract class Person {
         this.name = name;
         this.email = email;
         this.dateOfBirth = dateOfBirth;
-        personCount++;
+        personCount.incrementAndGet();
     }
 
     public String getId() {
@@ -44,6 +53,7 @@ public abstract class Person {
             throw new IllegalArgumentException("Name cannot be null or empty");
         }
         this.name = name;
+        fireChanged();
     }
 
     public String getEmail() {
@@ -52,6 +62,7 @@ public abstract class Person {
 
     public void setEmail(String email) {
         this.email = email;
+        fireChanged();
     }
 
     public LocalDate getDateOfBirth() {
@@ -64,14 +75,46 @@ public abstract class Person {
 
     public abstract void displayInfo();
 
+    /**
+     * Applies several setter calls as one change: readers using {@link #read} see all of them
+     * or none, and the change listener fires once at the end. Not reentrant: the changes must
+     * not call read() or update() on the same object.
+     */
+    public void update(Runnable changes) {
+        stateLock.update(changes);
+        fireChanged();
+    }
+
+    /**
+     * Reads several fields consistently with respect to {@link #update}. Lock-free unless an
+     * update races with it, in which case the read is retried under the read lock.
+     */
+    public <R> R read(Supplier<R> reader) {
+        return stateLock.read(reader);
+    }
+
+    public void setChangeListener(Consumer<? super Person> changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    protected void fireChanged() {
+        if (stateLock.isUpdating()) {
+            return;  // inside update(), which notifies once when it is done
+        }
+        Consumer<? super Person> listener = changeListener;
+        if (listener != null) {
+            listener.accept(this);
+        }
+    }
+
     public static int getPersonCount() {
-        return personCount;
+        return personCount.get();
     }
 
 
     @Override
     public String toString() {
-        return String.format("Person{id='%s', name='%s'}", id, name);
+        return read(() -> String.format("Person{id='%s', name='%s'}", id, name));
     }
 
 }
\ No newline at end of file
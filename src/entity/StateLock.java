@@ -0,0 +1,53 @@
+package entity;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Guards the mutable fields of an entity so multi-field changes are seen all or nothing.
+ * Writers take the write lock for the whole change; readers read optimistically and retry
+ * under the read lock only if a change raced with them. Shared by Person and Course.
+ */
+final class StateLock {
+
+    private final StampedLock lock = new StampedLock();
+    private volatile Thread updatingThread;  // owner of the write lock while update() runs
+
+    /** Runs the changes under the write lock. Not reentrant. */
+    void update(Runnable changes) {
+        long stamp = lock.writeLock();
+        updatingThread = Thread.currentThread();
+        try {
+            changes.run();
+        } finally {
+            updatingThread = null;
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Runs the reader without locking, or again under the read lock if an update raced with it. */
+    <R> R read(Supplier<R> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                R result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // saw a torn state; fall through and retry under the lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** True while the calling thread is inside {@link #update}. */
+    boolean isUpdating() {
+        return updatingThread == Thread.currentThread();
+    }
+}
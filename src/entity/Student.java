@@ -3,17 +3,20 @@ package entity;
 import inter_face.Gradeable;
 import inter_face.Searchable;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import util.IdRegistry;
+import util.OrderedIntSet;
+import util.SymbolTable;
 
 public class Student extends Person implements Gradeable, Searchable {
 
-    private String major;
-    private int semester;
-    private double gpa;
-    private final List<String> enrolledCourses;  // final reference = can't reassign list
-    private int attendancePercentage;
+    private volatile SymbolTable.Symbol major;  // shared: majors repeat across the roster
+    private volatile int semester;
+    private volatile double gpa;
+    // Course numbers from IdRegistry.COURSES, in the order the student took them; lock-free
+    private final OrderedIntSet enrolledCourses;
+    private final OrderedIntSet completedCourses;  // passed; satisfy prerequisites
+    private volatile int attendancePercentage;
 
 
     public Student(String id, String name, String email, LocalDate dateOfBirth,
@@ -27,16 +30,22 @@ public class Student extends Person implements Gradeable, Searchable {
             throw new IllegalArgumentException("Semester must be positive");
         }
 
-        this.major = major;
+        this.major = SymbolTable.of(major);
         this.semester = semester;
         this.gpa = 0.0;
-        this.enrolledCourses = new ArrayList<>();
+        this.enrolledCourses = new OrderedIntSet();
+        this.completedCourses = new OrderedIntSet();
         this.attendancePercentage = 100;
     }
 
     // GETTERS
     public String getMajor() {
-        return major;
+        return major.getValue();
+    }
+
+    /** Case-insensitive code of the major, see {@link SymbolTable#codeOf}. */
+    public int getMajorCode() {
+        return major.getCode();
     }
 
     public int getSemester() {
@@ -47,8 +56,24 @@ public class Student extends Person implements Gradeable, Searchable {
         return gpa;
     }
 
+    /** Read-only snapshot, in enrollment order. */
     public List<String> getEnrolledCourses() {
-        return Collections.unmodifiableList(enrolledCourses);
+        return IdRegistry.COURSES.idsOf(enrolledCourses.toArray());
+    }
+
+    /** Read-only snapshot, in completion order. */
+    public List<String> getCompletedCourses() {
+        return IdRegistry.COURSES.idsOf(completedCourses.toArray());
+    }
+
+    public boolean isEnrolledIn(String courseId) {
+        int course = IdRegistry.COURSES.find(courseId);
+        return course != IdRegistry.NO_NUMBER && enrolledCourses.contains(course);
+    }
+
+    public boolean hasCompleted(String courseId) {
+        int course = IdRegistry.COURSES.find(courseId);
+        return course != IdRegistry.NO_NUMBER && completedCourses.contains(course);
     }
 
     public int getAttendancePercentage() {
@@ -60,7 +85,8 @@ public class Student extends Person implements Gradeable, Searchable {
         if (major == null || major.trim().isEmpty()) {
             throw new IllegalArgumentException("Major cannot be null or empty");
         }
-        this.major = major;
+        this.major = SymbolTable.of(major);
+        fireChanged();
     }
 
     public void setSemester(int semester) {
@@ -68,6 +94,7 @@ public class Student extends Person implements Gradeable, Searchable {
             throw new IllegalArgumentException("Semester must be positive");
         }
         this.semester = semester;
+        fireChanged();
     }
 
     public void setGpa(double gpa) {
@@ -75,6 +102,7 @@ public class Student extends Person implements Gradeable, Searchable {
             throw new IllegalArgumentException("GPA must be between 0.0 and 4.0");
         }
         this.gpa = gpa;
+        fireChanged();
     }
 
     public void setAttendancePercentage(int attendance) {
@@ -82,19 +110,28 @@ public class Student extends Person implements Gradeable, Searchable {
             throw new IllegalArgumentException("Attendance must be between 0 and 100");
         }
         this.attendancePercentage = attendance;
+        fireChanged();
     }
 
     public void enrollInCourse(String courseId) {
         if (courseId == null || courseId.trim().isEmpty()) {
             throw new IllegalArgumentException("Course ID cannot be null or empty");
         }
-        if (!enrolledCourses.contains(courseId)) {
-            enrolledCourses.add(courseId);
-        }
+        enrolledCourses.add(IdRegistry.COURSES.register(courseId));  // atomic check-then-add
     }
 
     public void unenrollFromCourse(String courseId) {
-        enrolledCourses.remove(courseId);
+        int course = IdRegistry.COURSES.find(courseId);
+        if (course != IdRegistry.NO_NUMBER) {
+            enrolledCourses.remove(course);
+        }
+    }
+
+    public void completeCourse(String courseId) {
+        if (courseId == null || courseId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Course ID cannot be null or empty");
+        }
+        completedCourses.add(IdRegistry.COURSES.register(courseId));
     }
 
     @Override
@@ -104,7 +141,7 @@ public class Student extends Person implements Gradeable, Searchable {
         System.out.println("Name: " + getName());
         System.out.println("Email: " + getEmail());
         System.out.println("Age: " + getAge());
-        System.out.println("Major: " + major);
+        System.out.println("Major: " + getMajor());
         System.out.println("Semester: " + semester);
         System.out.println("GPA: " + String.format("%.2f", gpa));
         System.out.println("Grade: " + calculateGrade());
@@ -135,18 +172,23 @@ public class Student extends Person implements Gradeable, Searchable {
         return getId().toLowerCase().contains(lowerQuery) ||
                 getName().toLowerCase().contains(lowerQuery) ||
                 getEmail().toLowerCase().contains(lowerQuery) ||
-                major.toLowerCase().contains(lowerQuery);
+                getMajor().toLowerCase().contains(lowerQuery);
+    }
+
+    @Override
+    public String[] getSearchableFields() {
+        return read(() -> new String[] {getId(), getName(), getEmail(), getMajor()});
     }
 
     @Override
     public String getSearchableInfo() {
-        return String.format("ID: %s | Name: %s | Major: %s | GPA: %.2f | Grade: %s",
-                getId(), getName(), major, gpa, calculateGrade());
+        return read(() -> String.format("ID: %s | Name: %s | Major: %s | GPA: %.2f | Grade: %s",
+                getId(), getName(), getMajor(), gpa, calculateGrade()));
     }
 
     @Override
     public String toString() {
-        return String.format("Student{id='%s', name='%s', major='%s', gpa=%.2f, semester=%d}",
-                getId(), getName(), major, gpa, semester);
+        return read(() -> String.format("Student{id='%s', name='%s', major='%s', gpa=%.2f, semester=%d}",
+                getId(), getName(), getMajor(), gpa, semester));
     }
 }
@@ -0,0 +1,18 @@
+package exception;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class BatchValidationException extends InvalidDataException {
+    private final List<String> errors;
+
+    public BatchValidationException(List<String> errors) {
+        super(errors.size() + " invalid record(s) in batch: " + String.join("; ", errors));
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,23 @@
+package exception;
+
+import java.util.Collections;
+import java.util.List;
+
+public class PrerequisiteNotMetException extends Exception {
+    private String courseId;
+    private List<String> missingPrerequisites;
+
+    public PrerequisiteNotMetException(String courseId, List<String> missingPrerequisites) {
+        super("Prerequisites not met for " + courseId + ": missing " + String.join(", ", missingPrerequisites));
+        this.courseId = courseId;
+        this.missingPrerequisites = Collections.unmodifiableList(missingPrerequisites);
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public List<String> getMissingPrerequisites() {
+        return missingPrerequisites;
+    }
+}
@@ -0,0 +1,22 @@
+package inter_face;
+
+/**
+ * JMX view of one instrumented operation (see {@code util.Metrics}).
+ * Latencies are in microseconds.
+ */
+public interface OperationMetricsMXBean {
+
+    String getName();
+
+    long getCount();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+}
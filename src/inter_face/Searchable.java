@@ -8,6 +8,9 @@ public interface Searchable {
 
     String getSearchableInfo();
 
+    // Raw field values matchesSearch looks at; search indexes tokenize these
+    String[] getSearchableFields();
+
     default boolean exactMatch(String field, String value) {
         return field != null && field.equalsIgnoreCase(value);
     }
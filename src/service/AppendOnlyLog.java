@@ -0,0 +1,134 @@
+package service;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Line-oriented append-only log file, one record per line. Every append is flushed before it
+ * returns. A torn last line (no trailing newline, left by a crash mid-append) is skipped when
+ * reading and cut off before the next append, so a new record never lands on the fragment.
+ * All methods are synchronized: appends from different request threads never interleave.
+ */
+class AppendOnlyLog implements Closeable {
+
+    private final File file;
+    private BufferedWriter writer;
+    private int recordCount;
+
+    AppendOnlyLog(File file) {
+        this.file = file;
+    }
+
+    synchronized void append(String record) throws IOException {
+        append(Collections.singletonList(record));
+    }
+
+    /** Appends several records with a single flush. */
+    synchronized void append(List<String> records) throws IOException {
+        if (writer == null) {
+            File parent = file.getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            truncateTornTail();
+            writer = new BufferedWriter(new FileWriter(file, true));
+        }
+        for (String record : records) {
+            writer.write(record);
+            writer.newLine();
+        }
+        writer.flush();  // each change must survive a crash once its call returns
+        recordCount += records.size();
+    }
+
+    /**
+     * Reads every complete record in the log. A torn last line (no trailing newline)
+     * is dropped because the change it describes never finished.
+     */
+    synchronized List<String> readRecords() throws IOException {
+        List<String> records = new ArrayList<>();
+        if (!file.exists()) {
+            return records;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            StringBuilder line = new StringBuilder();
+            int ch;
+            while ((ch = reader.read()) != -1) {
+                if (ch == '\n') {
+                    if (line.length() > 0) {
+                        records.add(line.toString());
+                    }
+                    line.setLength(0);
+                } else if (ch != '\r') {
+                    line.append((char) ch);
+                }
+            }
+        }
+        recordCount = records.size();
+        return records;
+    }
+
+    synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    /** Drops all records; called once their effects are stored elsewhere. */
+    synchronized void reset() throws IOException {
+        close();
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Could not truncate " + file);
+        }
+        recordCount = 0;
+    }
+
+    /** Atomically replaces the whole log with the given records. */
+    synchronized void rewrite(List<String> records) throws IOException {
+        close();
+        File tmp = new File(file.getPath() + ".tmp");
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(tmp))) {
+            for (String record : records) {
+                out.write(record);
+                out.newLine();
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            throw e;
+        }
+        Files.move(tmp.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        recordCount = records.size();
+    }
+
+    // Cuts the file back to just after its last newline
+    private void truncateTornTail() throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long end = raf.length();
+            while (end > 0) {
+                raf.seek(end - 1);
+                if (raf.read() == '\n') {
+                    break;
+                }
+                end--;
+            }
+            if (end < raf.length()) {
+                raf.setLength(end);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * Secondary index grouping records by a derived key (major, department, letter grade, ...).
+ * Each bucket keeps its records by insertion sequence, so a lookup returns them in the same
+ * order as a full listing and costs time proportional to the result, not to the table.
+ *
+ * Callers re-{@link #put} a record whenever its key may have changed; the key is re-derived
+ * from the record's current fields and the record moves bucket if needed. Updates of one record
+ * are atomic with respect to each other, so the last put always wins. Lookups never lock.
+ */
+class BucketIndex<K, T> {
+
+    private final Function<? super T, ? extends K> keyOf;
+    private final Map<K, ConcurrentSkipListMap<Long, T>> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, K> keys = new ConcurrentHashMap<>();  // sequence -> current key
+
+    BucketIndex(Function<? super T, ? extends K> keyOf) {
+        this.keyOf = keyOf;
+    }
+
+    void put(long sequence, T record) {
+        keys.compute(sequence, (seq, oldKey) -> {  // locks this record's entry only
+            K key = keyOf.apply(record);
+            if (oldKey != null && !oldKey.equals(key)) {
+                bucket(oldKey).remove(seq);
+            }
+            bucket(key).put(seq, record);
+            return key;
+        });
+    }
+
+    void remove(long sequence) {
+        keys.computeIfPresent(sequence, (seq, key) -> {
+            bucket(key).remove(seq);
+            return null;
+        });
+    }
+
+    /** Records whose key equals {@code key}, in insertion order. */
+    List<T> get(K key) {
+        ConcurrentSkipListMap<Long, T> bucket = key == null ? null : buckets.get(key);
+        return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket.values());
+    }
+
+    void clear() {
+        keys.clear();
+        buckets.clear();
+    }
+
+    private ConcurrentSkipListMap<Long, T> bucket(K key) {
+        return buckets.computeIfAbsent(key, k -> new ConcurrentSkipListMap<>());
+    }
+}
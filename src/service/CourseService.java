@@ -2,150 +2,618 @@ package service;
 
 import entity.Course;
 import exception.*;
+import util.CourseFeatureTable;
+import util.Metrics;
+import util.OperationMetrics;
+import util.PersistenceEvent;
+import util.PrerequisiteGraph;
+import util.SearchIndex;
+import util.SymbolTable;
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
+/**
+ * Thread-safe: lookups, listings and search never take a lock. Every mutation rewrites the
+ * course file, so mutations are serialised by {@code writeLock}.
+ *
+ * Prerequisites are kept in data/prerequisites.csv ("CourseID,PrerequisiteID", one required
+ * course per line) and must form a DAG; they are compiled into the feature table's
+ * {@link PrerequisiteGraph} together with the catalog.
+ */
 public class CourseService {
-    private List<Course> courses;
-    private static final String COURSE_FILE = "data/courses.csv";
+    private final Map<String, Entry> courses = new ConcurrentHashMap<>();  // primary-key index
+    private final ConcurrentSkipListMap<Long, Course> order = new ConcurrentSkipListMap<>();  // insertion order
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Bumped on every catalog change; the feature table is rebuilt lazily when it falls behind.
+    // Courses filling up or freeing a seat do not count: the table reads isFull() live.
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final List<Consumer<? super Course>> availabilityListeners = new CopyOnWriteArrayList<>();
+    private volatile CourseFeatureTable featureTable;
+    private final SearchIndex<Course> searchIndex = new SearchIndex<>("courses", Course::getCourseId);
+    private final BucketIndex<Integer, Course> byDepartment = new BucketIndex<>(Course::getDepartmentCode);
+    private static final String COURSE_FILE = DataPaths.file("courses.csv");
+    private static final String SNAPSHOT_FILE = DataPaths.file("courses.snapshot");
+    private static final String PREREQUISITE_FILE = DataPaths.file("prerequisites.csv");
+
+    // Latency of each operation, published over JMX (see Metrics)
+    private static final OperationMetrics ADD_METRICS = Metrics.operation("CourseService.addCourse");
+    private static final OperationMetrics ADD_BATCH_METRICS = Metrics.operation("CourseService.addCourses");
+    private static final OperationMetrics UPDATE_METRICS = Metrics.operation("CourseService.updateCourse");
+    private static final OperationMetrics DELETE_METRICS = Metrics.operation("CourseService.deleteCourse");
+    private static final OperationMetrics SEARCH_METRICS = Metrics.operation("CourseService.searchCourses");
+    private static final OperationMetrics SAVE_METRICS = Metrics.operation("CourseService.saveCoursesToFile");
+    private static final OperationMetrics LOAD_METRICS = Metrics.operation("CourseService.loadCoursesFromFile");
+
+    // Course ID -> directly required course IDs; lists are replaced, never modified in place
+    private final Map<String, List<String>> prerequisites = new ConcurrentHashMap<>();
+
+    // Bumped only when courses are added or removed or prerequisites change, so enrollments
+    // (which fill and free seats) do not force the graph to be rebuilt
+    private final AtomicLong graphVersion = new AtomicLong();
+    private volatile VersionedGraph prerequisiteGraph;
+
+    private final StorageFormat format;
+    // Set when a data file could not be read: saving the partial catalog would overwrite the
+    // good files, so saves are refused until a clean load
+    private volatile boolean loadFailed;
 
     public CourseService() {
-        this.courses = new ArrayList<>();
+        this(StorageFormat.CSV);
+    }
+
+    public CourseService(StorageFormat format) {
+        this.format = format;
         loadCoursesFromFile();
     }
 
+    /** One-time conversion of courses.csv into a binary snapshot. */
+    public static void convertCsvToSnapshot() throws IOException {
+        CourseService csv = new CourseService(StorageFormat.CSV);
+        if (csv.loadFailed) {
+            throw new IOException("Course files did not load cleanly; no snapshot written");
+        }
+        csv.writeSnapshot();
+    }
+
     public void addCourse(Course course) throws InvalidDataException {
-        if (course.getCourseId() == null || course.getCourseId().isEmpty()) {
-            throw new InvalidDataException("Course ID cannot be empty");
+        long start = System.nanoTime();
+        try {
+            if (course.getCourseId() == null || course.getCourseId().isEmpty()) {
+                throw new InvalidDataException("Course ID cannot be empty");
+            }
+
+            writeLock.lock();
+            try {
+                if (findCourseById(course.getCourseId()) != null) {
+                    throw new InvalidDataException("Course with ID " + course.getCourseId() + " already exists");
+                }
+
+                putCourse(course);
+                saveCoursesToFile();
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            ADD_METRICS.recordSince(start);
+        }
+    }
+
+    /**
+     * Adds a whole batch atomically: all records are checked first (empty IDs, duplicates within
+     * the batch and against stored courses) and every problem is reported together. A valid batch
+     * is stored with a single file rewrite.
+     */
+    public void addCourses(Collection<? extends Course> batch) throws InvalidDataException {
+        long start = System.nanoTime();
+        try {
+            List<Course> items = new ArrayList<>(batch);
+            writeLock.lock();
+            try {
+                addValidatedBatch(items);
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            ADD_BATCH_METRICS.recordSince(start);
         }
+    }
 
-        if (findCourseById(course.getCourseId()) != null) {
-            throw new InvalidDataException("Course with ID " + course.getCourseId() + " already exists");
+    private void addValidatedBatch(List<Course> items) throws BatchValidationException {
+        List<String> errors = new ArrayList<>();
+        Set<String> batchIds = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            Course course = items.get(i);
+            String problem = null;
+            if (course == null) {
+                problem = "Course cannot be null";
+            } else if (course.getCourseId() == null || course.getCourseId().isEmpty()) {
+                problem = "Course ID cannot be empty";
+            } else if (courses.containsKey(course.getCourseId())) {
+                problem = "Course with ID " + course.getCourseId() + " already exists";
+            } else if (!batchIds.add(course.getCourseId())) {
+                problem = "Course with ID " + course.getCourseId() + " appears more than once in the batch";
+            }
+            if (problem != null) {
+                errors.add("record " + (i + 1) + ": " + problem);
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new BatchValidationException(errors);
+        }
+        if (items.isEmpty()) {
+            return;
         }
 
-        courses.add(course);
+        for (Course course : items) {
+            putCourse(course);
+        }
         saveCoursesToFile();
     }
 
+    // Every stored course is indexed and watched, so setter calls on it keep the index current.
+    // Callers hold writeLock.
+    private void putCourse(Course course) {
+        Entry previous = courses.get(course.getCourseId());
+        long sequence = previous != null ? previous.sequence : nextSequence.getAndIncrement();
+        courses.put(course.getCourseId(), new Entry(sequence, course));
+        order.put(sequence, course);
+        if (previous != null && previous.course != course) {
+            previous.course.setChangeListener(null);
+            previous.course.setAvailabilityListener(null);
+        }
+        course.setChangeListener(this::onCourseChanged);
+        course.setAvailabilityListener(this::onAvailabilityChanged);
+        searchIndex.put(course);
+        byDepartment.put(sequence, course);
+        catalogVersion.incrementAndGet();
+        if (previous == null) {
+            graphVersion.incrementAndGet();
+        }
+    }
+
+    private void removeCourse(String id) {
+        Entry removed = courses.remove(id);
+        if (removed != null) {
+            order.remove(removed.sequence);
+            removed.course.setChangeListener(null);
+            removed.course.setAvailabilityListener(null);
+            searchIndex.remove(id);
+            byDepartment.remove(removed.sequence);
+            catalogVersion.incrementAndGet();
+            graphVersion.incrementAndGet();
+        }
+    }
+
+    private void onCourseChanged(Course course) {
+        Entry entry = courses.get(course.getCourseId());
+        if (entry != null && entry.course == course) {
+            searchIndex.put(course);  // the indexes are thread-safe; a re-put always reads current fields
+            byDepartment.put(entry.sequence, course);
+            catalogVersion.incrementAndGet();
+        }
+    }
+
+    // Seat-only change: nothing to re-index or rebuild, only listeners such as a cache to tell
+    private void onAvailabilityChanged(Course course) {
+        Entry entry = courses.get(course.getCourseId());
+        if (entry != null && entry.course == course) {
+            for (Consumer<? super Course> listener : availabilityListeners) {
+                listener.accept(course);
+            }
+        }
+    }
+
+    /**
+     * Registers a callback for stored courses filling up or freeing a seat again, e.g.
+     * {@link util.RecommendationCache#courseAvailabilityChanged}. It runs on the enrolling thread.
+     */
+    public void addAvailabilityListener(Consumer<? super Course> listener) {
+        availabilityListeners.add(listener);
+    }
+
     public List<Course> getAllCourses() {
-        return new ArrayList<>(courses);
+        return new ArrayList<>(order.values());
+    }
+
+    /**
+     * Precomputed scoring features of the current catalog, for AIHelper. Rebuilt on first use
+     * after a course is added, removed or edited; otherwise the same instance is returned.
+     */
+    public CourseFeatureTable getFeatureTable() {
+        CourseFeatureTable table = featureTable;
+        long version = catalogVersion.get();
+        if (table == null || table.getVersion() != version) {
+            // Read the version before the courses: a change racing with the build bumps it again
+            try {
+                table = CourseFeatureTable.of(getAllCourses(), version, prerequisites);
+            } catch (IllegalArgumentException e) {
+                // Only reachable through a hand-edited prerequisite file; addPrerequisite rejects cycles
+                System.err.println("Ignoring prerequisites: " + e.getMessage());
+                table = CourseFeatureTable.of(getAllCourses(), version, Collections.emptyMap());
+            }
+            featureTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * Prerequisite DAG of the current catalog, for eligibility checks. Its course numbering is
+     * its own; scoring uses the graph inside {@link #getFeatureTable()}, numbered by table row.
+     */
+    public PrerequisiteGraph getPrerequisiteGraph() {
+        VersionedGraph cached = prerequisiteGraph;
+        long version = graphVersion.get();
+        if (cached == null || cached.version != version) {
+            List<String> ids = new ArrayList<>(courses.size());
+            for (Course course : order.values()) {
+                ids.add(course.getCourseId());
+            }
+            PrerequisiteGraph graph;
+            try {
+                graph = PrerequisiteGraph.build(ids, prerequisites);
+            } catch (IllegalArgumentException e) {
+                graph = PrerequisiteGraph.empty(ids);  // reported when the feature table is built
+            }
+            cached = new VersionedGraph(version, graph);
+            prerequisiteGraph = cached;
+        }
+        return cached.graph;
+    }
+
+    /** Courses the given course directly requires, in the order they were added. */
+    public List<String> getPrerequisites(String courseId) {
+        List<String> required = courseId == null ? null : prerequisites.get(courseId);
+        return required == null ? Collections.emptyList() : required;
+    }
+
+    /**
+     * Makes {@code prerequisiteId} required before {@code courseId}.
+     *
+     * @throws InvalidDataException if the course would require itself, directly or transitively
+     */
+    public void addPrerequisite(String courseId, String prerequisiteId)
+            throws CourseNotFoundException, InvalidDataException {
+        writeLock.lock();
+        try {
+            if (findCourseById(courseId) == null) {
+                throw new CourseNotFoundException(courseId);
+            }
+            if (findCourseById(prerequisiteId) == null) {
+                throw new CourseNotFoundException(prerequisiteId);
+            }
+            List<String> current = getPrerequisites(courseId);
+            if (current.contains(prerequisiteId)) {
+                return;
+            }
+
+            List<String> updated = new ArrayList<>(current);
+            updated.add(prerequisiteId);
+            Map<String, List<String>> candidate = new HashMap<>(prerequisites);
+            candidate.put(courseId, Collections.unmodifiableList(updated));
+            List<String> ids = new ArrayList<>(courses.keySet());
+            try {
+                PrerequisiteGraph.build(ids, candidate);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidDataException(prerequisiteId + " cannot be a prerequisite of "
+                        + courseId + ": " + e.getMessage());
+            }
+
+            prerequisites.put(courseId, Collections.unmodifiableList(updated));
+            catalogVersion.incrementAndGet();
+            graphVersion.incrementAndGet();
+            savePrerequisitesToFile();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Increases whenever a course is added, removed or edited. */
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    public int getCourseCount() {
+        return courses.size();
     }
 
     public Course findCourseById(String id) {
-        return courses.stream()
-                .filter(c -> c.getCourseId().equals(id))
-                .findFirst()
-                .orElse(null);
+        if (id == null) {
+            return null;
+        }
+        Entry entry = courses.get(id);
+        return entry == null ? null : entry.course;
     }
 
     public List<Course> searchCourses(String query) {
-        return courses.stream()
-                .filter(c -> c.matchesSearch(query))
-                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        try {
+            return searchIndex.search(query);
+        } finally {
+            SEARCH_METRICS.recordSince(start);
+        }
     }
 
     public void updateCourse(String id, Course updatedCourse) throws CourseNotFoundException {
-        Course existing = findCourseById(id);
-        if (existing == null) {
-            throw new CourseNotFoundException(id);
-        }
+        long start = System.nanoTime();
+        try {
+            writeLock.lock();
+            try {
+                Course existing = findCourseById(id);
+                if (existing == null) {
+                    throw new CourseNotFoundException(id);
+                }
 
-        existing.setCourseName(updatedCourse.getCourseName());
-        existing.setInstructor(updatedCourse.getInstructor());
-        existing.setCredits(updatedCourse.getCredits());
-        existing.setMaxCapacity(updatedCourse.getMaxCapacity());
-        existing.setDepartment(updatedCourse.getDepartment());
+                existing.update(() -> {  // readers see the old or the new course, never a mix
+                    existing.setCourseName(updatedCourse.getCourseName());
+                    existing.setInstructor(updatedCourse.getInstructor());
+                    existing.setCredits(updatedCourse.getCredits());
+                    existing.setMaxCapacity(updatedCourse.getMaxCapacity());
+                    existing.setDepartment(updatedCourse.getDepartment());
+                });
 
-        saveCoursesToFile();
+                saveCoursesToFile();
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            UPDATE_METRICS.recordSince(start);
+        }
     }
 
     public void deleteCourse(String id) throws CourseNotFoundException {
-        Course course = findCourseById(id);
-        if (course == null) {
-            throw new CourseNotFoundException(id);
-        }
+        long start = System.nanoTime();
+        try {
+            writeLock.lock();
+            try {
+                Course course = findCourseById(id);
+                if (course == null) {
+                    throw new CourseNotFoundException(id);
+                }
 
-        courses.remove(course);
-        saveCoursesToFile();
+                removeCourse(id);
+                saveCoursesToFile();
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            DELETE_METRICS.recordSince(start);
+        }
     }
 
     public List<Course> getCoursesByDepartment(String department) {
-        return courses.stream()
-                .filter(c -> c.getDepartment() != null &&
-                        c.getDepartment().equalsIgnoreCase(department))
-                .collect(Collectors.toList());
+        int code = SymbolTable.codeOf(department);  // same match as equalsIgnoreCase, compared as ints
+        if (code == SymbolTable.NO_CODE) {
+            return new ArrayList<>();
+        }
+        return byDepartment.get(code);
     }
 
+    // Callers hold writeLock
     private void saveCoursesToFile() {
-        File dataDir = new File("data");
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            if (loadFailed) {
+                System.err.println("Not saving courses: the data files did not load cleanly and would be overwritten");
+                return;
+            }
+            File dataDir = new File(DataPaths.DATA_DIR);
+            if (!dataDir.exists()) {
+                dataDir.mkdirs();
+            }
+
+            if (format == StorageFormat.BINARY) {
+                try {
+                    writeSnapshot();
+                } catch (IOException e) {
+                    System.err.println("Error saving course snapshot: " + e.getMessage());
+                }
+                return;
+            }
+
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(COURSE_FILE))) {
+                // Write header
+                writer.write("CourseID,CourseName,Instructor,Credits,MaxCapacity,Department,EnrolledCount\n");
+
+                // Write course data
+                for (Course course : order.values()) {
+                    writer.write(courseToCSV(course));
+                    writer.newLine();
+                }
+            } catch (IOException e) {
+                System.err.println("Error saving courses: " + e.getMessage());
+            }
+        } finally {
+            SAVE_METRICS.recordSince(start);
+            event.end();
+            if (event.shouldCommit()) {
+                commitPersistenceEvent(event, "save");
+            }
+        }
+    }
+
+    // Callers hold writeLock
+    private void savePrerequisitesToFile() {
+        if (loadFailed) {
+            System.err.println("Not saving prerequisites: the data files did not load cleanly and would be overwritten");
+            return;
+        }
+        File dataDir = new File(DataPaths.DATA_DIR);
         if (!dataDir.exists()) {
             dataDir.mkdirs();
         }
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(COURSE_FILE))) {
-            // Write header
-            writer.write("CourseID,CourseName,Instructor,Credits,MaxCapacity,Department,EnrolledCount\n");
-
-            // Write course data
-            for (Course course : courses) {
-                writer.write(courseToCSV(course));
-                writer.newLine();
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(PREREQUISITE_FILE))) {
+            writer.write("CourseID,PrerequisiteID\n");
+            for (Map.Entry<String, List<String>> entry : prerequisites.entrySet()) {
+                for (String prerequisiteId : entry.getValue()) {
+                    writer.write(entry.getKey() + "," + prerequisiteId);
+                    writer.newLine();
+                }
             }
         } catch (IOException e) {
-            System.err.println("Error saving courses: " + e.getMessage());
+            System.err.println("Error saving prerequisites: " + e.getMessage());
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        File tmp = new File(SNAPSHOT_FILE + ".tmp");
+        try {
+            CourseSnapshot.write(tmp, new ArrayList<>(order.values()));
+            Files.move(tmp.toPath(), new File(SNAPSHOT_FILE).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            tmp.delete();
         }
     }
 
     private void loadCoursesFromFile() {
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            writeLock.lock();
+            try {
+                loadLocked();
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            LOAD_METRICS.recordSince(start);
+            event.end();
+            if (event.shouldCommit()) {
+                commitPersistenceEvent(event, "load");
+            }
+        }
+    }
+
+    // Only called while the event is enabled: sizing the files costs a stat call each
+    private void commitPersistenceEvent(PersistenceEvent event, String operation) {
+        event.store = "courses";
+        event.operation = operation;
+        event.format = format.name();
+        event.rows = order.size();
+        event.bytes = dataFileBytes();
+        event.commit();
+    }
+
+    // Size of the files the current format loads from (the CSV files until a snapshot exists)
+    private long dataFileBytes() {
+        File snapshot = new File(SNAPSHOT_FILE);
+        if (format == StorageFormat.BINARY && snapshot.exists()) {
+            return snapshot.length();
+        }
+        return new File(COURSE_FILE).length();
+    }
+
+    private void loadLocked() {
+        for (Course course : order.values()) {
+            course.setChangeListener(null);
+            course.setAvailabilityListener(null);
+        }
         courses.clear();
+        order.clear();
+        searchIndex.clear();
+        byDepartment.clear();
+        loadFailed = false;
+        loadPrerequisites();
+        File snapshotFile = new File(SNAPSHOT_FILE);
+        if (format == StorageFormat.BINARY && snapshotFile.exists()) {
+            try {
+                for (Course course : CourseSnapshot.read(snapshotFile)) {
+                    putCourse(course);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error loading course snapshot: " + e.getMessage());
+                loadFailed = true;
+            }
+            return;
+        }
+
         File file = new File(COURSE_FILE);
 
         if (!file.exists()) {
             return;
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            reader.readLine();
+        try {
+            for (Course course : CsvChunkLoader.load(file, this::csvToCourse)) {
+                putCourse(course);
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading courses: " + e.getMessage());
+            loadFailed = true;
+        }
+    }
 
-            while ((line = reader.readLine()) != null) {
-                Course course = csvToCourse(line);
-                if (course != null) {
-                    courses.add(course);
+    private void loadPrerequisites() {
+        prerequisites.clear();
+        File file = new File(PREREQUISITE_FILE);
+        if (!file.exists()) {
+            return;
+        }
+
+        try {
+            Map<String, List<String>> loaded = new LinkedHashMap<>();
+            for (String[] edge : CsvChunkLoader.load(file, this::csvToPrerequisite)) {
+                List<String> required = loaded.computeIfAbsent(edge[0], id -> new ArrayList<>());
+                if (!required.contains(edge[1])) {
+                    required.add(edge[1]);
                 }
             }
+            for (Map.Entry<String, List<String>> entry : loaded.entrySet()) {
+                prerequisites.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+            }
         } catch (IOException e) {
-            System.err.println("Error loading courses: " + e.getMessage());
+            System.err.println("Error loading prerequisites: " + e.getMessage());
+            loadFailed = true;
         }
+        catalogVersion.incrementAndGet();
+        graphVersion.incrementAndGet();
     }
 
+    private String[] csvToPrerequisite(CsvChunkLoader.Row row) {
+        if (row.size() < 2 || row.string(0).isEmpty() || row.string(1).isEmpty()) {
+            return null;
+        }
+        return new String[] {row.string(0), row.string(1)};
+    }
 
     private String courseToCSV(Course course) {
-        return String.format("%s,%s,%s,%d,%d,%s,%d",
+        return course.read(() -> String.format("%s,%s,%s,%d,%d,%s,%d",
                 course.getCourseId(),
                 course.getCourseName(),
                 course.getInstructor(),
                 course.getCredits(),
                 course.getMaxCapacity(),
                 course.getDepartment() != null ? course.getDepartment() : "",
-                course.getEnrolledStudentIds().size()
-        );
+                course.getEnrollmentCount()
+        ));
     }
 
-    private Course csvToCourse(String csv) {
+    private Course csvToCourse(CsvChunkLoader.Row row) {
         try {
-            String[] parts = csv.split(",");
-            if (parts.length < 6) return null;
+            if (row.size() < 6) return null;
 
             Course course = new Course(
-                    parts[0], // courseId
-                    parts[1], // courseName
-                    parts[2], // instructor
-                    Integer.parseInt(parts[3]) // credits
+                    row.string(0), // courseId
+                    row.string(1), // courseName
+                    row.string(2), // instructor
+                    row.intValue(3) // credits
             );
-            course.setMaxCapacity(Integer.parseInt(parts[4]));
-            course.setDepartment(parts[5]);
+            course.setMaxCapacity(row.intValue(4));
+            course.setDepartment(row.string(5));
 
             return course;
         } catch (Exception e) {
@@ -153,4 +621,24 @@ public class CourseService {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    private static class Entry {
+        final long sequence;
+        final Course course;
+
+        Entry(long sequence, Course course) {
+            this.sequence = sequence;
+            this.course = course;
+        }
+    }
+
+    private static class VersionedGraph {
+        final long version;
+        final PrerequisiteGraph graph;
+
+        VersionedGraph(long version, PrerequisiteGraph graph) {
+            this.version = version;
+            this.graph = graph;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package service;
+
+import entity.Course;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Binary snapshot of the course catalog, same columns as courses.csv.
+ */
+class CourseSnapshot {
+
+    private CourseSnapshot() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    static void write(File file, Collection<Course> courses) throws IOException {
+        int n = courses.size();
+        String[] id = new String[n];
+        String[] name = new String[n];
+        String[] instructor = new String[n];
+        int[] credits = new int[n];
+        int[] maxCapacity = new int[n];
+        String[] department = new String[n];
+        int[] enrolledCount = new int[n];
+
+        int i = 0;
+        for (Course course : courses) {
+            int row = i++;
+            course.read(() -> {
+                id[row] = course.getCourseId();
+                name[row] = course.getCourseName();
+                instructor[row] = course.getInstructor();
+                credits[row] = course.getCredits();
+                maxCapacity[row] = course.getMaxCapacity();
+                department[row] = course.getDepartment();
+                enrolledCount[row] = course.getEnrollmentCount();
+                return null;
+            });
+        }
+
+        try (SnapshotIO.Writer writer = new SnapshotIO.Writer(file, SnapshotIO.KIND_COURSES, n)) {
+            writer.writeStringColumn(id);
+            writer.writeStringColumn(name);
+            writer.writeStringColumn(instructor);
+            writer.writeIntColumn(credits);
+            writer.writeIntColumn(maxCapacity);
+            writer.writeStringColumn(department);
+            writer.writeIntColumn(enrolledCount);
+        }
+    }
+
+    static List<Course> read(File file) throws IOException {
+        SnapshotIO.Reader reader = new SnapshotIO.Reader(file, SnapshotIO.KIND_COURSES);
+        String[] id = reader.readStringColumn();
+        String[] name = reader.readStringColumn();
+        String[] instructor = reader.readStringColumn();
+        int[] credits = reader.readIntColumn();
+        int[] maxCapacity = reader.readIntColumn();
+        String[] department = reader.readStringColumn();
+        reader.readIntColumn();  // enrolled count, informational like the CSV column
+
+        List<Course> courses = new ArrayList<>(reader.getRowCount());
+        for (int i = 0; i < reader.getRowCount(); i++) {
+            try {
+                Course course = new Course(id[i], name[i], instructor[i], credits[i]);
+                course.setMaxCapacity(maxCapacity[i]);
+                course.setDepartment(department[i]);
+                courses.add(course);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Error reading course snapshot row " + i + ": " + e.getMessage());
+            }
+        }
+        return courses;
+    }
+}
@@ -0,0 +1,281 @@
+package service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Loads a CSV file (first line = header) by cutting it into line-aligned chunks and
+ * parsing the chunks in parallel on the common fork-join pool. Each chunk is read into a
+ * heap buffer with a positional read; nothing is mapped, so no mapping outlives the load and
+ * keeps a later save from replacing the file (on Windows). Rows come back in file order.
+ */
+class CsvChunkLoader {
+
+    private static final long MIN_CHUNK_BYTES = 1L << 20;
+    private static final long MAX_CHUNK_BYTES = 1L << 26;  // one heap buffer per chunk being parsed
+    private static final int CHUNKS_PER_CORE = 4;          // smooths out uneven chunks
+
+    @FunctionalInterface
+    interface RowParser<T> {
+        /** Returns null to skip the row. */
+        T parse(Row row);
+    }
+
+    private CsvChunkLoader() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    static <T> List<T> load(File file, RowParser<T> parser) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long dataStart = nextLineStart(channel, 0, size);  // skip header
+            long[] bounds = chunkBounds(channel, dataStart, size);
+
+            List<List<T>> chunks;
+            try {
+                chunks = IntStream.range(0, bounds.length - 1)
+                        .parallel()
+                        .mapToObj(i -> parseChunk(channel, bounds[i], bounds[i + 1], parser))
+                        .collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            int total = 0;
+            for (List<T> chunk : chunks) {
+                total += chunk.size();
+            }
+            List<T> rows = new ArrayList<>(total);
+            for (List<T> chunk : chunks) {
+                rows.addAll(chunk);
+            }
+            return rows;
+        }
+    }
+
+    private static long[] chunkBounds(FileChannel channel, long start, long end) throws IOException {
+        long length = end - start;
+        int cores = Runtime.getRuntime().availableProcessors();
+        long target = Math.max(MIN_CHUNK_BYTES, length / ((long) cores * CHUNKS_PER_CORE));
+        target = Math.min(target, MAX_CHUNK_BYTES);
+        int count = (int) Math.max(1, (length + target - 1) / target);
+
+        long[] bounds = new long[count + 1];
+        bounds[0] = start;
+        for (int i = 1; i < count; i++) {
+            long approx = start + length * i / count;
+            // A chunk may run up to one line past MAX_CHUNK_BYTES; rows are far shorter than the slack
+            bounds[i] = Math.max(bounds[i - 1], nextLineStart(channel, approx - 1, end));
+        }
+        bounds[count] = end;
+        return bounds;
+    }
+
+    // Position just after the first '\n' at or after pos (or end if there is none)
+    private static long nextLineStart(FileChannel channel, long pos, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (pos < end) {
+            buffer.clear();
+            int read = channel.read(buffer, pos);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += read;
+        }
+        return end;
+    }
+
+    private static <T> List<T> parseChunk(FileChannel channel, long start, long end, RowParser<T> parser) {
+        List<T> rows = new ArrayList<>();
+        if (end <= start) {
+            return rows;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        try {
+            while (buffer.hasRemaining()) {
+                // Positional reads do not move the channel's position, so chunks can share it
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    throw new IOException("File shrank while it was read");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.flip();
+
+        Row row = new Row();
+        int length = buffer.limit();
+        int lineStart = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || buffer.get(i) == '\n') {
+                if (i > lineStart && row.reset(buffer, lineStart, i)) {
+                    T value = parser.parse(row);
+                    if (value != null) {
+                        rows.add(value);
+                    }
+                }
+                lineStart = i + 1;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * One CSV line split on commas (no quoting, same as the writers produce).
+     * Reused for every line of a chunk, so tokenizing allocates nothing per row.
+     */
+    static class Row {
+        private byte[] bytes = new byte[256];
+        private int[] fieldStart = new int[16];
+        private int[] fieldEnd = new int[16];
+        private int size;
+
+        static Row of(String line) {
+            Row row = new Row();
+            byte[] data = line.getBytes(StandardCharsets.UTF_8);
+            row.reset(ByteBuffer.wrap(data), 0, data.length);
+            return row;
+        }
+
+        // Returns false for blank lines
+        boolean reset(ByteBuffer source, int from, int to) {
+            if (to > from && source.get(to - 1) == '\r') {
+                to--;
+            }
+            int length = to - from;
+            if (length <= 0) {
+                size = 0;
+                return false;
+            }
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            source.get(from, bytes, 0, length);
+
+            size = 0;
+            int start = 0;
+            for (int i = 0; i <= length; i++) {
+                if (i == length || bytes[i] == ',') {
+                    if (size == fieldStart.length) {
+                        fieldStart = Arrays.copyOf(fieldStart, size * 2);
+                        fieldEnd = Arrays.copyOf(fieldEnd, size * 2);
+                    }
+                    fieldStart[size] = start;
+                    fieldEnd[size] = i;
+                    size++;
+                    start = i + 1;
+                }
+            }
+            // Match String.split(","), which drops trailing empty fields
+            while (size > 0 && fieldStart[size - 1] == fieldEnd[size - 1]) {
+                size--;
+            }
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+
+        String string(int field) {
+            return new String(bytes, fieldStart[field], fieldEnd[field] - fieldStart[field],
+                    StandardCharsets.UTF_8);
+        }
+
+        int intValue(int field) {
+            int pos = fieldStart[field];
+            int end = fieldEnd[field];
+            boolean negative = pos < end && bytes[pos] == '-';
+            if (negative || (pos < end && bytes[pos] == '+')) pos++;
+            if (pos == end || end - pos > 9) {
+                return Integer.parseInt(string(field));  // empty or possible overflow: let the JDK report it
+            }
+            int value = 0;
+            for (; pos < end; pos++) {
+                int digit = bytes[pos] - '0';
+                if (digit < 0 || digit > 9) {
+                    return Integer.parseInt(string(field));  // accepts exactly what the old loader did, or throws
+                }
+                value = value * 10 + digit;
+            }
+            return negative ? -value : value;
+        }
+
+        // Plain decimals like "3.60"; anything else falls back to Double.parseDouble
+        double doubleValue(int field) {
+            int pos = fieldStart[field];
+            int end = fieldEnd[field];
+            long mantissa = 0;
+            int scale = -1;
+            int digits = 0;
+            for (int i = pos; i < end; i++) {
+                byte b = bytes[i];
+                if (b == '.' && scale < 0) {
+                    scale = 0;
+                } else if (b >= '0' && b <= '9' && digits < 15) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                    if (scale >= 0) scale++;
+                } else {
+                    return Double.parseDouble(string(field));
+                }
+            }
+            if (digits == 0) {
+                return Double.parseDouble(string(field));
+            }
+            // Exact integer divided by an exact power of ten: correctly rounded, same as parseDouble
+            return scale <= 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+        }
+
+        // ISO yyyy-MM-dd
+        LocalDate date(int field) {
+            int pos = fieldStart[field];
+            if (fieldEnd[field] - pos != 10 || bytes[pos + 4] != '-' || bytes[pos + 7] != '-') {
+                return LocalDate.parse(string(field));
+            }
+            return LocalDate.of(digits(pos, 4), digits(pos + 5, 2), digits(pos + 8, 2));
+        }
+
+        boolean booleanValue(int field) {
+            int length = fieldEnd[field] - fieldStart[field];
+            if (length != 4) {
+                return false;
+            }
+            int pos = fieldStart[field];
+            return (bytes[pos] | 0x20) == 't' && (bytes[pos + 1] | 0x20) == 'r'
+                    && (bytes[pos + 2] | 0x20) == 'u' && (bytes[pos + 3] | 0x20) == 'e';
+        }
+
+        private int digits(int pos, int count) {
+            int value = 0;
+            for (int i = pos; i < pos + count; i++) {
+                int digit = bytes[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new NumberFormatException("Invalid date digits: " + new String(bytes, pos, count,
+                            StandardCharsets.US_ASCII));
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        private static final double[] POWERS_OF_TEN = {
+                1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package service;
+
+/**
+ * Where the services keep their files: {@code data/} under the working directory, or the
+ * directory named by the {@code sms.data.dir} system property (benchmarks and load tests point
+ * it at a scratch directory so they never touch the real data).
+ */
+final class DataPaths {
+
+    static final String DATA_DIR = System.getProperty("sms.data.dir", "data");
+
+    private DataPaths() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    static String file(String name) {
+        return DATA_DIR + "/" + name;
+    }
+}
@@ -0,0 +1,304 @@
+package service;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Seeded generator of large, realistic data sets for scale tests and benchmarks.
+ *
+ * Writes students.csv, graduate_students.csv, courses.csv and enrollments.log in exactly the
+ * formats the services load, one row at a time, so memory use does not grow with the row count.
+ * Majors and course departments follow a Zipf distribution (a few large departments, a long tail
+ * of small ones), most courses are enrolled to 85-100% of capacity and thesis titles are long.
+ * The same seed and sizes always produce byte-identical files; each file draws from its own
+ * random stream, so changing the number of courses does not change the students.
+ *
+ * From the command line:
+ * {@code java -cp bin service.DatasetGenerator <dir> <students> <graduates> <courses> [seed]}
+ */
+public class DatasetGenerator {
+
+    private static final String[] MAJORS = {
+            "Computer Science", "Business", "Engineering", "Biology", "Psychology",
+            "Economics", "Mathematics", "Nursing", "Physics", "Political Science",
+            "Chemistry", "English", "History", "Finance", "Management",
+            "Sociology", "Philosophy", "Art", "Music", "Linguistics"
+    };
+    private static final String[] DEPARTMENT_PREFIXES = {
+            "CS", "BUS", "ENG", "BIO", "PSY",
+            "ECON", "MATH", "NURS", "PHYS", "POLS",
+            "CHEM", "ENGL", "HIST", "FIN", "MGMT",
+            "SOC", "PHIL", "ART", "MUS", "LING"
+    };
+    private static final double ZIPF_EXPONENT = 1.1;
+
+    private static final String[] FIRST_NAMES = {
+            "Divya", "Raj", "Carol", "Ahmed", "Mei", "Lucas", "Priya", "Olga", "Kwame", "Sofia",
+            "Hiro", "Elena", "Tomas", "Aisha", "Noah", "Ines", "Arjun", "Fatima", "Liam", "Yuki",
+            "Mateo", "Zara", "Chen", "Amara", "Ivan", "Leila", "Oscar", "Nadia", "Kofi", "Emma"
+    };
+    private static final String[] LAST_NAMES = {
+            "Jain", "Singh", "Williams", "Khan", "Chen", "Silva", "Patel", "Ivanova", "Mensah", "Rossi",
+            "Tanaka", "Garcia", "Novak", "Bello", "Smith", "Costa", "Okafor", "Nguyen", "Muller", "Haddad",
+            "Kowalski", "Sato", "Brown", "Mehta", "Adeyemi", "Larsen", "Moreau", "Kim", "Torres", "Taylor"
+    };
+    private static final String[] TITLE_WORDS = {
+            "Scalable", "Adaptive", "Distributed", "Probabilistic", "Empirical", "Longitudinal",
+            "Analysis", "Framework", "Models", "Evaluation", "Optimisation", "Inference",
+            "Learning", "Systems", "Networks", "Dynamics", "Structures", "Methods",
+            "Healthcare", "Markets", "Policy", "Communities", "Climate", "Language",
+            "Uncertainty", "Verification", "Design", "Behaviour", "Resilience", "Evidence"
+    };
+    private static final String[] TITLE_JOINERS = {"of", "for", "in", "and", "with", "under", "towards"};
+
+    private static final int[] CAPACITIES = {25, 30, 40, 60, 120, 250};
+    private static final double[] CAPACITY_WEIGHTS = {0.25, 0.3, 0.2, 0.15, 0.07, 0.03};
+    private static final double FULL_COURSE_SHARE = 0.3;
+    private static final double MIN_FILL = 0.85;
+
+    private static final int MIN_TITLE_WORDS = 12;
+    private static final int MAX_TITLE_WORDS = 40;
+
+    // Independent random streams, one per file
+    private static final long STUDENT_STREAM = 1;
+    private static final long GRADUATE_STREAM = 2;
+    private static final long COURSE_STREAM = 3;
+    private static final long ENROLLMENT_STREAM = 4;
+
+    private final long seed;
+    private final int students;
+    private final int graduates;
+    private final int courses;
+
+    private final double[] majorWeights = zipfCumulative(MAJORS.length, ZIPF_EXPONENT);
+    private final double[] capacityWeights = cumulative(CAPACITY_WEIGHTS);
+
+    public DatasetGenerator(long seed, int students, int graduates, int courses) {
+        if (students < 0 || graduates < 0 || courses < 0) {
+            throw new IllegalArgumentException("Row counts cannot be negative");
+        }
+        if (students > 10_000_000 || graduates > 10_000_000) {
+            throw new IllegalArgumentException("At most 10,000,000 students of each kind (7-digit IDs)");
+        }
+        this.seed = seed;
+        this.students = students;
+        this.graduates = graduates;
+        this.courses = courses;
+    }
+
+    public static String studentId(int index) {
+        return String.format(Locale.ROOT, "STU%07d", index);
+    }
+
+    public static String graduateId(int index) {
+        return String.format(Locale.ROOT, "GRD%07d", index);
+    }
+
+    /**
+     * Writes the data set into {@code directory}, replacing its data files. A leftover journal,
+     * snapshot or prerequisite list would be applied on top of the new files at load time, so
+     * those are removed (prerequisites.csv is left with just its header).
+     */
+    public void writeTo(File directory) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        for (String stale : new String[] {"students.journal", "students.snapshot", "courses.snapshot"}) {
+            File file = new File(directory, stale);
+            if (file.exists() && !file.delete()) {
+                throw new IOException("Cannot delete " + file);
+            }
+        }
+
+        writeStudents(new File(directory, "students.csv"));
+        writeGraduates(new File(directory, "graduate_students.csv"));
+        writeCoursesAndEnrollments(new File(directory, "courses.csv"), new File(directory, "enrollments.log"));
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(new File(directory, "prerequisites.csv")))) {
+            writer.write("CourseID,PrerequisiteID\n");
+        }
+    }
+
+    private void writeStudents(File file) throws IOException {
+        Random random = new Random(seed * 31 + STUDENT_STREAM);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file), 1 << 16)) {
+            writer.write("ID,Name,Email,DateOfBirth,Major,Semester,GPA,Attendance\n");
+            for (int i = 0; i < students; i++) {
+                String major = MAJORS[pick(random, majorWeights)];
+                writer.write(personColumns(random, studentId(i), major, 1998, 10, 1 + random.nextInt(8)));
+                writer.newLine();
+            }
+        }
+    }
+
+    private void writeGraduates(File file) throws IOException {
+        Random random = new Random(seed * 31 + GRADUATE_STREAM);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file), 1 << 16)) {
+            writer.write("ID,Name,Email,DateOfBirth,Major,Semester,GPA,Attendance,"
+                    + "ThesisTitle,Advisor,ResearchArea,ThesisSubmitted\n");
+            for (int i = 0; i < graduates; i++) {
+                String major = MAJORS[pick(random, majorWeights)];
+                String columns = personColumns(random, graduateId(i), major, 1985, 15, 5 + random.nextInt(6));
+                // Mostly researching within the major, sometimes in a related popular field
+                String researchArea = random.nextInt(4) == 0 ? MAJORS[pick(random, majorWeights)] : major;
+
+                writer.write(columns);
+                writer.write(',');
+                writer.write(thesisTitle(random));
+                writer.write(",Dr. " + FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                        + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                writer.write(',');
+                writer.write(researchArea);
+                writer.write(random.nextInt(4) == 0 ? ",true" : ",false");
+                writer.newLine();
+            }
+        }
+    }
+
+    // ID,Name,Email,DateOfBirth,Major,Semester,GPA,Attendance
+    private static String personColumns(Random random, String id, String major,
+                                        int firstBirthYear, int birthYears, int semester) {
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        double gpa = Math.max(0.0, Math.min(4.0, 3.0 + random.nextGaussian() * 0.5));
+        int attendance = (int) Math.max(40, Math.min(100, 100 - Math.abs(random.nextGaussian() * 10)));
+
+        return String.format(Locale.ROOT, "%s,%s %s,%s.%s.%s@university.edu,%04d-%02d-%02d,%s,%d,%.2f,%d",
+                id, first, last,
+                first.toLowerCase(Locale.ROOT), last.toLowerCase(Locale.ROOT), id.toLowerCase(Locale.ROOT),
+                firstBirthYear + random.nextInt(birthYears), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                major, semester, gpa, attendance);
+    }
+
+    private static String thesisTitle(Random random) {
+        int words = MIN_TITLE_WORDS + random.nextInt(MAX_TITLE_WORDS - MIN_TITLE_WORDS + 1);
+        StringBuilder title = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                title.append(' ');
+            }
+            // Every third word is a joiner so titles read as phrases
+            title.append(w % 3 == 2 ? TITLE_JOINERS[random.nextInt(TITLE_JOINERS.length)]
+                    : TITLE_WORDS[random.nextInt(TITLE_WORDS.length)]);
+        }
+        return title.toString();
+    }
+
+    /**
+     * Courses get Zipf-distributed departments and IDs numbered per department (CS101, CS102, ...).
+     * Each course is then filled to 85-100% of its capacity (30% exactly full) with distinct
+     * students, visited along a random stride through the whole population, so the enrollment
+     * log is written without remembering who already took which course.
+     */
+    private void writeCoursesAndEnrollments(File courseFile, File enrollmentFile) throws IOException {
+        Random random = new Random(seed * 31 + COURSE_STREAM);
+        Random seats = new Random(seed * 31 + ENROLLMENT_STREAM);
+        int population = students + graduates;
+        int[] nextNumber = new int[DEPARTMENT_PREFIXES.length];
+
+        try (BufferedWriter courseWriter = new BufferedWriter(new FileWriter(courseFile), 1 << 16);
+             BufferedWriter enrollmentWriter = new BufferedWriter(new FileWriter(enrollmentFile), 1 << 16)) {
+            courseWriter.write("CourseID,CourseName,Instructor,Credits,MaxCapacity,Department,EnrolledCount\n");
+            for (int i = 0; i < courses; i++) {
+                int department = pick(random, majorWeights);
+                String courseId = DEPARTMENT_PREFIXES[department] + (101 + nextNumber[department]++);
+                int capacity = CAPACITIES[pick(random, capacityWeights)];
+                int fill = random.nextDouble() < FULL_COURSE_SHARE
+                        ? capacity
+                        : (int) (capacity * (MIN_FILL + random.nextDouble() * (1 - MIN_FILL)));
+                fill = Math.min(fill, population);
+
+                courseWriter.write(String.format(Locale.ROOT, "%s,%s %s,Dr. %s,%d,%d,%s,%d",
+                        courseId,
+                        TITLE_WORDS[random.nextInt(TITLE_WORDS.length)], MAJORS[department],
+                        LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                        1 + random.nextInt(4), capacity, MAJORS[department], fill));
+                courseWriter.newLine();
+
+                if (fill == 0) {
+                    continue;
+                }
+                long member = seats.nextInt(population);
+                long stride = coprimeStride(seats, population);
+                for (int s = 0; s < fill; s++) {
+                    int index = (int) member;
+                    String studentId = index < students ? studentId(index) : graduateId(index - students);
+                    enrollmentWriter.write(EnrollmentStore.ADD + "," + studentId + "," + courseId);
+                    enrollmentWriter.newLine();
+                    member = (member + stride) % population;
+                }
+            }
+        }
+    }
+
+    // A step in [1, n) sharing no factor with n, so stepping visits n distinct values before repeating
+    private static long coprimeStride(Random random, int n) {
+        if (n == 1) {
+            return 1;
+        }
+        long stride;
+        do {
+            stride = 1 + random.nextInt(n - 1);
+        } while (gcd(stride, n) != 1);
+        return stride;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    // Rank k (1-based) gets weight 1/k^s
+    private static double[] zipfCumulative(int n, double exponent) {
+        double[] weights = new double[n];
+        for (int k = 0; k < n; k++) {
+            weights[k] = 1.0 / Math.pow(k + 1, exponent);
+        }
+        return cumulative(weights);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] sums = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            sums[i] = total;
+        }
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] /= total;
+        }
+        sums[sums.length - 1] = 1.0;  // no rounding gap at the top
+        return sums;
+    }
+
+    private static int pick(Random random, double[] cumulative) {
+        int at = Arrays.binarySearch(cumulative, random.nextDouble());
+        return at >= 0 ? at : -at - 1;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.err.println("Usage: DatasetGenerator <dir> <students> <graduates> <courses> [seed]");
+            System.exit(1);
+        }
+        try {
+            long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+            new DatasetGenerator(seed, Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+                    Integer.parseInt(args[3])).writeTo(new File(args[0]));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number: " + e.getMessage());
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Error writing data set: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
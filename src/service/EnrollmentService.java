@@ -0,0 +1,363 @@
+package service;
+
+import entity.Course;
+import entity.Student;
+import exception.CourseNotFoundException;
+import exception.PrerequisiteNotMetException;
+import exception.StudentNotFoundException;
+import util.CoEnrollmentIndex;
+import util.PrerequisiteGraph;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Enrolls students in courses, keeping {@link Student#getEnrolledCourses()} and
+ * {@link Course#getEnrolledStudentIds()} in agreement.
+ *
+ * Seats are taken with a lock-free reservation on the course, so a course never goes past its
+ * capacity, and a request for a full course is refused without taking any shared lock.
+ * Operations on the same student are serialised by a lock stripe, so an enroll and a drop of
+ * one student can never leave the two sides disagreeing. A successful enroll or drop is not
+ * contention-free, though: it then updates the {@link CoEnrollmentIndex} under that index's
+ * write lock and appends to the log, which is synchronized and flushed per line. Those two short
+ * sections are shared by all students, so committed enrollments go through them one at a time.
+ *
+ * A student may only enroll once every transitive prerequisite of the course (see
+ * {@link CourseService#addPrerequisite}) is among their completed courses.
+ *
+ * Enrollments and completions are persisted in data/enrollments.log: every enroll, drop or
+ * completion appends one line, and the log is compacted to the live state once it holds twice
+ * as many lines.
+ * On construction the log is replayed onto the already loaded students and courses.
+ *
+ * Every enrolled or completed course is also fed to a {@link CoEnrollmentIndex}, which backs the
+ * "students like you also took" recommendations.
+ *
+ * Students deleted through {@link StudentService#deleteStudent} give their seats back (logged as
+ * drops) and leave the index; their completions are dropped from the log by the next compaction.
+ */
+public class EnrollmentService implements Closeable {
+
+    private static final int LOCK_STRIPES = 64;  // power of two
+    private static final String ENROLLMENT_FILE = DataPaths.file("enrollments.log");
+
+    // Compact once the log holds this many records or twice the live enrollments, whichever is larger
+    private static final int MIN_COMPACT_RECORDS = 1024;
+
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final EnrollmentStore store = new EnrollmentStore(new File(ENROLLMENT_FILE));
+    private final AtomicInteger liveEnrollments = new AtomicInteger();
+    private final AtomicInteger completions = new AtomicInteger();
+    private final CoEnrollmentIndex coEnrollment = new CoEnrollmentIndex();
+    private volatile boolean rewriteNeeded;  // an append failed; the next compaction must rewrite
+    private final Consumer<Student> deleteListener = this::studentDeleted;
+
+    // Shared by enroll/drop, exclusive for compaction so it sees a settled set of enrollments
+    private final ReentrantReadWriteLock storeLock = new ReentrantReadWriteLock();
+    private final ReentrantLock[] studentLocks = new ReentrantLock[LOCK_STRIPES];
+
+    public EnrollmentService(StudentService studentService, CourseService courseService) {
+        this.studentService = studentService;
+        this.courseService = courseService;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            studentLocks[i] = new ReentrantLock();
+        }
+        loadEnrollments();
+        studentService.addDeleteListener(deleteListener);
+    }
+
+    /**
+     * @return true if the student now holds a seat; false if the course is full
+     *         or the student was already enrolled
+     * @throws StudentNotFoundException if the student is not on the roster (checked again under the
+     *         student's lock, so a student being deleted cannot take a seat)
+     * @throws PrerequisiteNotMetException if the student has not completed every course this one requires
+     */
+    public boolean enroll(String studentId, String courseId)
+            throws StudentNotFoundException, CourseNotFoundException, PrerequisiteNotMetException {
+        Student student = requireStudent(studentId);
+        Course course = requireCourse(courseId);
+        PrerequisiteGraph prerequisites = courseService.getPrerequisiteGraph();
+
+        ReentrantLock lock = lockFor(studentId);
+        storeLock.readLock().lock();
+        lock.lock();
+        try {
+            if (studentService.findStudentById(studentId) != student) {
+                throw new StudentNotFoundException(studentId);  // deleted since: its seats are being released
+            }
+            // Under the student lock, so a concurrent completeCourse is either seen or not started
+            int index = prerequisites.indexOf(courseId);
+            if (index >= 0 && prerequisites.hasPrerequisites(index)
+                    && !prerequisites.isSatisfied(index, prerequisites.toBitset(student.getCompletedCourses()))) {
+                throw new PrerequisiteNotMetException(courseId,
+                        prerequisites.getMissingPrerequisites(courseId, student.getCompletedCourses()));
+            }
+            if (!course.addStudent(studentId)) {
+                return false;
+            }
+            try {
+                student.enrollInCourse(courseId);
+            } catch (RuntimeException e) {
+                course.removeStudent(studentId);  // roll back the seat
+                throw e;
+            }
+            liveEnrollments.incrementAndGet();
+            coEnrollment.addEnrollment(studentId, courseId);
+            try {
+                store.appendAdd(studentId, courseId);
+            } catch (IOException e) {
+                System.err.println("Error writing enrollment log: " + e.getMessage());
+                rewriteNeeded = true;
+            }
+        } finally {
+            lock.unlock();
+            storeLock.readLock().unlock();
+        }
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * @return true if the student held a seat in the course and has released it
+     */
+    public boolean drop(String studentId, String courseId)
+            throws StudentNotFoundException, CourseNotFoundException {
+        Student student = requireStudent(studentId);
+        Course course = requireCourse(courseId);
+
+        ReentrantLock lock = lockFor(studentId);
+        storeLock.readLock().lock();
+        lock.lock();
+        try {
+            student.unenrollFromCourse(courseId);
+            if (!course.removeStudent(studentId)) {
+                return false;
+            }
+            liveEnrollments.decrementAndGet();
+            if (!student.hasCompleted(courseId)) {
+                coEnrollment.removeEnrollment(studentId, courseId);
+            }
+            try {
+                store.appendDrop(studentId, courseId);
+            } catch (IOException e) {
+                System.err.println("Error writing enrollment log: " + e.getMessage());
+                rewriteNeeded = true;
+            }
+        } finally {
+            lock.unlock();
+            storeLock.readLock().unlock();
+        }
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * Records that the student passed the course, which then counts towards the prerequisites
+     * of later courses. A seat the student holds in the course is released.
+     *
+     * @return true if the completion is new
+     */
+    public boolean completeCourse(String studentId, String courseId)
+            throws StudentNotFoundException, CourseNotFoundException {
+        Student student = requireStudent(studentId);
+        Course course = requireCourse(courseId);
+
+        ReentrantLock lock = lockFor(studentId);
+        storeLock.readLock().lock();
+        lock.lock();
+        try {
+            if (student.hasCompleted(courseId)) {
+                return false;
+            }
+            student.completeCourse(courseId);
+            completions.incrementAndGet();
+            student.unenrollFromCourse(courseId);
+            if (course.removeStudent(studentId)) {
+                liveEnrollments.decrementAndGet();
+            }
+            coEnrollment.addEnrollment(studentId, courseId);  // still "took" the course
+            try {
+                store.appendDone(studentId, courseId);
+            } catch (IOException e) {
+                System.err.println("Error writing enrollment log: " + e.getMessage());
+                rewriteNeeded = true;
+            }
+        } finally {
+            lock.unlock();
+            storeLock.readLock().unlock();
+        }
+        compactIfNeeded();
+        return true;
+    }
+
+    /** Up to {@code limit} courses the student has not taken, most often taken by their classmates first. */
+    public List<String> recommendByCoEnrollment(String studentId, int limit) {
+        return coEnrollment.recommend(studentId, limit);
+    }
+
+    public CoEnrollmentIndex getCoEnrollmentIndex() {
+        return coEnrollment;
+    }
+
+    public boolean isEnrolled(String studentId, String courseId) {
+        Course course = courseService.findCourseById(courseId);
+        return course != null && course.isEnrolled(studentId);
+    }
+
+    /** Rewrites the enrollment log down to the live enrollments and completions. */
+    public void compact() {
+        storeLock.writeLock().lock();
+        try {
+            List<String[]> edges = new ArrayList<>(liveEnrollments.get());
+            for (Course course : courseService.getAllCourses()) {
+                for (String studentId : course.getEnrolledStudentIds()) {
+                    if (studentService.findStudentById(studentId) != null) {  // not deleted meanwhile
+                        edges.add(new String[] {studentId, course.getCourseId()});
+                    }
+                }
+            }
+            List<String[]> done = new ArrayList<>(completions.get());
+            for (Student student : studentService.getAllStudents()) {
+                for (String courseId : student.getCompletedCourses()) {
+                    done.add(new String[] {student.getId(), courseId});
+                }
+            }
+            store.rewrite(edges, done);
+            rewriteNeeded = false;
+        } catch (IOException e) {
+            System.err.println("Error compacting enrollment log: " + e.getMessage());
+        } finally {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        studentService.removeDeleteListener(deleteListener);
+        try {
+            store.close();
+        } catch (IOException e) {
+            System.err.println("Error closing enrollment log: " + e.getMessage());
+        }
+    }
+
+    // Releases a deleted student's seats and takes them out of the co-enrollment index.
+    // Runs under StudentService's lock for the ID; the stripe lock orders it with enroll/drop.
+    private void studentDeleted(Student student) {
+        String studentId = student.getId();
+        ReentrantLock lock = lockFor(studentId);
+        storeLock.readLock().lock();
+        lock.lock();
+        try {
+            for (String courseId : student.getEnrolledCourses()) {
+                student.unenrollFromCourse(courseId);
+                Course course = courseService.findCourseById(courseId);
+                if (course != null && course.removeStudent(studentId)) {
+                    liveEnrollments.decrementAndGet();
+                    try {
+                        store.appendDrop(studentId, courseId);  // a student re-added under this ID starts empty
+                    } catch (IOException e) {
+                        System.err.println("Error writing enrollment log: " + e.getMessage());
+                        rewriteNeeded = true;
+                    }
+                }
+                coEnrollment.removeEnrollment(studentId, courseId);
+            }
+            for (String courseId : student.getCompletedCourses()) {
+                completions.decrementAndGet();
+                coEnrollment.removeEnrollment(studentId, courseId);
+                rewriteNeeded = true;  // no record undoes a DONE line; the next compaction drops it
+            }
+        } finally {
+            lock.unlock();
+            storeLock.readLock().unlock();
+        }
+    }
+
+    // Must be called without holding storeLock (it cannot be upgraded to the write lock)
+    private void compactIfNeeded() {
+        int threshold = Math.max(MIN_COMPACT_RECORDS, 2 * (liveEnrollments.get() + completions.get()));
+        if (rewriteNeeded || store.getRecordCount() >= threshold) {
+            compact();
+        }
+    }
+
+    // One pass over the log, applying each edge to both sides directly
+    private void loadEnrollments() {
+        List<String> records;
+        try {
+            records = store.readRecords();
+        } catch (IOException e) {
+            System.err.println("Error reading enrollment log: " + e.getMessage());
+            return;
+        }
+
+        for (String record : records) {
+            String[] parts = record.split(",", 3);
+            if (parts.length < 3) continue;
+
+            Student student = studentService.findStudentById(parts[1]);
+            Course course = courseService.findCourseById(parts[2]);
+            if (student == null || course == null) {
+                continue;  // student or course deleted since; the next compaction drops the line
+            }
+
+            if (parts[0].equals(EnrollmentStore.ADD)) {
+                if (course.addStudent(student.getId())) {
+                    student.enrollInCourse(course.getCourseId());
+                    liveEnrollments.incrementAndGet();
+                    coEnrollment.addEnrollment(student.getId(), course.getCourseId());
+                }
+            } else if (parts[0].equals(EnrollmentStore.DROP)) {
+                student.unenrollFromCourse(course.getCourseId());
+                if (course.removeStudent(student.getId())) {
+                    liveEnrollments.decrementAndGet();
+                    if (!student.hasCompleted(course.getCourseId())) {
+                        coEnrollment.removeEnrollment(student.getId(), course.getCourseId());
+                    }
+                }
+            } else if (parts[0].equals(EnrollmentStore.DONE)) {
+                if (!student.hasCompleted(course.getCourseId())) {
+                    student.completeCourse(course.getCourseId());
+                    completions.incrementAndGet();
+                }
+                student.unenrollFromCourse(course.getCourseId());
+                if (course.removeStudent(student.getId())) {
+                    liveEnrollments.decrementAndGet();
+                }
+                coEnrollment.addEnrollment(student.getId(), course.getCourseId());
+            }
+        }
+    }
+
+    private Student requireStudent(String studentId) throws StudentNotFoundException {
+        Student student = studentService.findStudentById(studentId);
+        if (student == null) {
+            throw new StudentNotFoundException(studentId);
+        }
+        return student;
+    }
+
+    private Course requireCourse(String courseId) throws CourseNotFoundException {
+        Course course = courseService.findCourseById(courseId);
+        if (course == null) {
+            throw new CourseNotFoundException(courseId);
+        }
+        return course;
+    }
+
+    private ReentrantLock lockFor(String studentId) {
+        int h = studentId.hashCode();
+        return studentLocks[(h ^ (h >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+}
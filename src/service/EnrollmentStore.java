@@ -0,0 +1,50 @@
+package service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of enrollment edges: "ADD,<studentId>,<courseId>", "DROP,<studentId>,<courseId>"
+ * or "DONE,<studentId>,<courseId>" (course completed). Each change costs one appended line;
+ * {@link #rewrite} compacts the log down to the live state once dropped and superseded lines dominate.
+ */
+class EnrollmentStore extends AppendOnlyLog {
+
+    static final String ADD = "ADD";
+    static final String DROP = "DROP";
+    static final String DONE = "DONE";
+
+    EnrollmentStore(File file) {
+        super(file);
+    }
+
+    void appendAdd(String studentId, String courseId) throws IOException {
+        append(ADD + "," + studentId + "," + courseId);
+    }
+
+    void appendDrop(String studentId, String courseId) throws IOException {
+        append(DROP + "," + studentId + "," + courseId);
+    }
+
+    void appendDone(String studentId, String courseId) throws IOException {
+        append(DONE + "," + studentId + "," + courseId);
+    }
+
+    /**
+     * Replaces the log with one DONE record per completion followed by one ADD record per live
+     * edge, both given as {studentId, courseId} pairs. Completions go first because replaying a
+     * DONE releases the seat: a student retaking a completed course keeps the enrollment.
+     */
+    void rewrite(List<String[]> edges, List<String[]> completions) throws IOException {
+        List<String> records = new ArrayList<>(completions.size() + edges.size());
+        for (String[] completion : completions) {
+            records.add(DONE + "," + completion[0] + "," + completion[1]);
+        }
+        for (String[] edge : edges) {
+            records.add(ADD + "," + edge[0] + "," + edge[1]);
+        }
+        rewrite(records);
+    }
+}
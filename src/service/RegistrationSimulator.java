@@ -0,0 +1,378 @@
+package service;
+
+import entity.Course;
+import entity.Student;
+import exception.CourseNotFoundException;
+import exception.PrerequisiteNotMetException;
+import exception.StudentNotFoundException;
+import util.AIHelper;
+import util.LatencyHistogram;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registration-day rehearsal: tens of thousands of simulated students, one virtual thread each,
+ * released at the same instant against the real services. Every student repeatedly looks a
+ * course up ({@link CourseService#searchCourses}), asks {@link AIHelper} for recommendations and
+ * then races for a seat ({@link EnrollmentService#enroll}, i.e. {@link Course#addStudent}),
+ * pausing for a random think time between steps. Course demand follows a Zipf distribution
+ * over a shuffled catalog, so a few hot courses draw most of the requests.
+ *
+ * The report gives throughput, latency percentiles per step, and two consistency checks:
+ * overbooked courses (more students than seats) and lost updates (a seat the simulator was
+ * granted that is missing from the course or the student afterwards, or course counts that
+ * disagree with the grants). Unless told to keep them, the enrollments are dropped again at
+ * the end, so the data directory ends up with the enrollments it started with.
+ *
+ * From the command line, against {@code data/} or {@code -Dsms.data.dir}:
+ * {@code java -cp bin service.RegistrationSimulator [clients] [coursesPerClient] [thinkMillis] [skew] [--keep]}
+ */
+public class RegistrationSimulator {
+
+    private static final int RECOMMENDATION_LIMIT = AIHelper.DEFAULT_LIMIT;
+
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+    private final int clients;
+    private final int coursesPerClient;
+    private final double thinkMillis;
+    private final double skew;
+    private final long seed;
+
+    private final LatencyHistogram searchLatency = new LatencyHistogram();
+    private final LatencyHistogram recommendLatency = new LatencyHistogram();
+    private final LatencyHistogram enrollLatency = new LatencyHistogram();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();  // full or already enrolled
+    private final LongAdder blockedByPrerequisites = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Queue<String[]> grants = new ConcurrentLinkedQueue<>();  // {studentId, courseId}
+
+    /**
+     * @param clients          simulated students, one virtual thread each (they reuse the roster
+     *                         round-robin if there are more clients than students)
+     * @param coursesPerClient seat requests each client makes
+     * @param thinkMillis      mean pause between steps, exponentially distributed; 0 for none
+     * @param skew             Zipf exponent of course demand; 0 spreads requests evenly
+     */
+    public RegistrationSimulator(StudentService studentService, CourseService courseService,
+                                 EnrollmentService enrollmentService, int clients, int coursesPerClient,
+                                 double thinkMillis, double skew, long seed) {
+        if (clients < 1 || coursesPerClient < 1) {
+            throw new IllegalArgumentException("Clients and courses per client must be positive");
+        }
+        if (thinkMillis < 0 || skew < 0) {
+            throw new IllegalArgumentException("Think time and skew cannot be negative");
+        }
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+        this.clients = clients;
+        this.coursesPerClient = coursesPerClient;
+        this.thinkMillis = thinkMillis;
+        this.skew = skew;
+        this.seed = seed;
+    }
+
+    /** Runs the simulation to completion and checks the resulting enrollments. */
+    public Report run() throws InterruptedException {
+        List<Student> roster = studentService.getAllStudents();
+        List<Course> catalog = courseService.getAllCourses();
+        if (roster.isEmpty() || catalog.isEmpty()) {
+            throw new IllegalStateException("Need at least one student and one course to simulate");
+        }
+
+        // Hot courses are a random subset of the catalog, not simply the first rows
+        Course[] byDemand = catalog.toArray(new Course[0]);
+        shuffle(byDemand, new SplittableRandom(seed));
+        double[] demand = zipfCumulative(byDemand.length, skew);
+
+        int[] initialCounts = new int[byDemand.length];
+        for (int c = 0; c < byDemand.length; c++) {
+            initialCounts[c] = byDemand[c].getEnrollmentCount();
+        }
+        AtomicIntegerArray granted = new AtomicIntegerArray(byDemand.length);
+
+        CountDownLatch opening = new CountDownLatch(1);
+        long started;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                Student student = roster.get(i % roster.size());
+                SplittableRandom random = new SplittableRandom(seed + 1 + i);
+                executor.submit(() -> {
+                    try {
+                        opening.await();
+                        runClient(student, byDemand, demand, granted, random);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException e) {
+                        errors.increment();  // a failed search or recommendation ends this client
+                        System.err.println("Simulated client failed: " + e);
+                    }
+                });
+            }
+            started = System.nanoTime();
+            opening.countDown();
+        }  // close() waits for every client
+        long elapsed = System.nanoTime() - started;
+
+        return check(byDemand, initialCounts, granted, elapsed);
+    }
+
+    private void runClient(Student student, Course[] byDemand, double[] demand,
+                           AtomicIntegerArray granted, SplittableRandom random) throws InterruptedException {
+        for (int attempt = 0; attempt < coursesPerClient; attempt++) {
+            int target = pick(random, demand);
+            String courseId = byDemand[target].getCourseId();
+
+            think(random);
+            long start = System.nanoTime();
+            courseService.searchCourses(courseId);
+            searchLatency.record(System.nanoTime() - start);
+
+            think(random);
+            start = System.nanoTime();
+            AIHelper.recommend(student, courseService.getFeatureTable(), RECOMMENDATION_LIMIT);
+            recommendLatency.record(System.nanoTime() - start);
+
+            think(random);
+            start = System.nanoTime();
+            try {
+                if (enrollmentService.enroll(student.getId(), courseId)) {
+                    accepted.increment();
+                    granted.incrementAndGet(target);
+                    grants.add(new String[] {student.getId(), courseId});
+                } else {
+                    rejected.increment();
+                }
+            } catch (PrerequisiteNotMetException e) {
+                blockedByPrerequisites.increment();
+            } catch (StudentNotFoundException | CourseNotFoundException | RuntimeException e) {
+                errors.increment();  // deleted mid-run, or a bug the report should surface
+            } finally {
+                enrollLatency.record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void think(SplittableRandom random) throws InterruptedException {
+        if (thinkMillis <= 0) {
+            return;
+        }
+        long nanos = (long) (-Math.log(1 - random.nextDouble()) * thinkMillis * 1_000_000);
+        Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+    }
+
+    private Report check(Course[] byDemand, int[] initialCounts, AtomicIntegerArray granted, long elapsedNanos) {
+        int overbooked = 0;
+        long lostUpdates = 0;
+        for (int c = 0; c < byDemand.length; c++) {
+            Course course = byDemand[c];
+            int count = course.getEnrollmentCount();
+            int members = course.getEnrolledStudentIds().size();
+            if (count > course.getMaxCapacity() || members > course.getMaxCapacity()) {
+                overbooked++;
+            }
+            // Nothing else drops seats during the run, so every grant must still be counted
+            if (count != initialCounts[c] + granted.get(c) || members != count) {
+                lostUpdates++;
+            }
+        }
+        for (String[] grant : grants) {
+            Student student = studentService.findStudentById(grant[0]);
+            Course course = courseService.findCourseById(grant[1]);
+            if (student == null || course == null
+                    || !student.isEnrolledIn(grant[1]) || !course.isEnrolled(grant[0])) {
+                lostUpdates++;
+            }
+        }
+        return new Report(clients, elapsedNanos, accepted.sum(), rejected.sum(),
+                blockedByPrerequisites.sum(), errors.sum(), overbooked, lostUpdates,
+                searchLatency, recommendLatency, enrollLatency);
+    }
+
+    /** Drops every seat granted during the run; returns how many were released. */
+    public int releaseGrants() {
+        int released = 0;
+        String[] grant;
+        while ((grant = grants.poll()) != null) {
+            try {
+                if (enrollmentService.drop(grant[0], grant[1])) {
+                    released++;
+                }
+            } catch (StudentNotFoundException | CourseNotFoundException e) {
+                System.err.println("Could not release " + grant[0] + " from " + grant[1] + ": " + e.getMessage());
+            }
+        }
+        return released;
+    }
+
+    private static void shuffle(Course[] courses, SplittableRandom random) {
+        for (int i = courses.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Course swap = courses[i];
+            courses[i] = courses[j];
+            courses[j] = swap;
+        }
+    }
+
+    // Rank k (1-based) gets weight 1/k^s
+    private static double[] zipfCumulative(int n, double exponent) {
+        double[] sums = new double[n];
+        double total = 0;
+        for (int k = 0; k < n; k++) {
+            total += 1.0 / Math.pow(k + 1, exponent);
+            sums[k] = total;
+        }
+        for (int k = 0; k < n; k++) {
+            sums[k] /= total;
+        }
+        sums[n - 1] = 1.0;
+        return sums;
+    }
+
+    private static int pick(SplittableRandom random, double[] cumulative) {
+        int at = Arrays.binarySearch(cumulative, random.nextDouble());
+        return at >= 0 ? at : -at - 1;
+    }
+
+    /** Outcome of one simulation run. */
+    public static class Report {
+        private final int clients;
+        private final long elapsedNanos;
+        private final long accepted;
+        private final long rejected;
+        private final long blockedByPrerequisites;
+        private final long errors;
+        private final int overbookedCourses;
+        private final long lostUpdates;
+        private final LatencyHistogram search;
+        private final LatencyHistogram recommend;
+        private final LatencyHistogram enroll;
+
+        Report(int clients, long elapsedNanos, long accepted, long rejected, long blockedByPrerequisites,
+               long errors, int overbookedCourses, long lostUpdates,
+               LatencyHistogram search, LatencyHistogram recommend, LatencyHistogram enroll) {
+            this.clients = clients;
+            this.elapsedNanos = elapsedNanos;
+            this.accepted = accepted;
+            this.rejected = rejected;
+            this.blockedByPrerequisites = blockedByPrerequisites;
+            this.errors = errors;
+            this.overbookedCourses = overbookedCourses;
+            this.lostUpdates = lostUpdates;
+            this.search = search;
+            this.recommend = recommend;
+            this.enroll = enroll;
+        }
+
+        public long getEnrollAttempts() {
+            return accepted + rejected + blockedByPrerequisites + errors;
+        }
+
+        /** Search, recommendation and enrollment calls per second, all clients together. */
+        public double getOperationsPerSecond() {
+            long operations = search.getCount() + recommend.getCount() + enroll.getCount();
+            return operations / (elapsedNanos / 1e9);
+        }
+
+        public long getAccepted() {
+            return accepted;
+        }
+
+        public int getOverbookedCourses() {
+            return overbookedCourses;
+        }
+
+        public long getLostUpdates() {
+            return lostUpdates;
+        }
+
+        /** True if no course was overbooked and no granted seat went missing. */
+        public boolean isConsistent() {
+            return overbookedCourses == 0 && lostUpdates == 0;
+        }
+
+        public String format() {
+            List<String> lines = new ArrayList<>();
+            lines.add(String.format("Clients: %d, wall time %.2f s, %.0f ops/s",
+                    clients, elapsedNanos / 1e9, getOperationsPerSecond()));
+            lines.add(String.format("Seat requests: %d (%d accepted, %d rejected, %d missing prerequisites, %d errors)",
+                    getEnrollAttempts(), accepted, rejected, blockedByPrerequisites, errors));
+            lines.add("Latency (microseconds)        p50         p99       p99.9         max");
+            lines.add(latencyLine("searchCourses", search));
+            lines.add(latencyLine("recommendCourses", recommend));
+            lines.add(latencyLine("enroll", enroll));
+            lines.add("Overbooked courses: " + overbookedCourses);
+            lines.add("Lost updates: " + lostUpdates);
+            return String.join(System.lineSeparator(), lines);
+        }
+
+        private static String latencyLine(String step, LatencyHistogram histogram) {
+            return String.format("  %-20s %11.1f %11.1f %11.1f %11.1f", step,
+                    histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(99) / 1e3,
+                    histogram.getValueAtPercentile(99.9) / 1e3, histogram.getMax() / 1e3);
+        }
+    }
+
+    public static void main(String[] args) {
+        List<String> positional = new ArrayList<>();
+        boolean keep = false;
+        for (String arg : args) {
+            if (arg.equals("--keep")) {
+                keep = true;
+            } else {
+                positional.add(arg);
+            }
+        }
+
+        int status = 0;
+        StudentService studentService = new StudentService();
+        CourseService courseService = new CourseService();
+        EnrollmentService enrollmentService = new EnrollmentService(studentService, courseService);
+        try {
+            RegistrationSimulator simulator = new RegistrationSimulator(studentService, courseService,
+                    enrollmentService,
+                    positional.size() > 0 ? Integer.parseInt(positional.get(0)) : 20_000,
+                    positional.size() > 1 ? Integer.parseInt(positional.get(1)) : 3,
+                    positional.size() > 2 ? Double.parseDouble(positional.get(2)) : 50,
+                    positional.size() > 3 ? Double.parseDouble(positional.get(3)) : 1.0,
+                    42);
+            Report report = simulator.run();
+            System.out.println(report.format());
+            if (!keep) {
+                System.out.println("Released " + simulator.releaseGrants() + " simulated enrollments");
+            }
+            if (!report.isConsistent()) {
+                status = 2;
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number: " + e.getMessage());
+            System.err.println("Usage: RegistrationSimulator [clients] [coursesPerClient] [thinkMillis] [skew] [--keep]");
+            status = 1;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.err.println(e.getMessage());
+            status = 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Simulation interrupted");
+            status = 1;
+        } finally {
+            enrollmentService.close();
+            studentService.close();
+        }
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+}
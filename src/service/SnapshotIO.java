@@ -0,0 +1,281 @@
+package service;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Columnar binary snapshot files.
+ *
+ * Layout: magic, format version, kind, row count, then one block per column.
+ * Low-cardinality string columns are dictionary-encoded (distinct values once, then a 1/2/4-byte
+ * code per row, -1 = null); mostly-unique ones (IDs, names) are stored inline, since a dictionary
+ * would only add a code per row. String lengths are varints; numeric columns are fixed width,
+ * big-endian.
+ */
+class SnapshotIO {
+
+    static final int MAGIC = 0x53454455;  // "SEDU"
+    static final int VERSION = 1;
+
+    static final byte KIND_STUDENTS = 1;
+    static final byte KIND_COURSES = 2;
+
+    private static final byte STRING_COLUMN = 's';
+    private static final byte INT_COLUMN = 'i';
+    private static final byte SHORT_COLUMN = 'h';
+    private static final byte BYTE_COLUMN = 'b';
+
+    private static final byte DICTIONARY_ENCODING = 'D';
+    private static final byte PLAIN_ENCODING = 'P';
+
+    private SnapshotIO() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    static class Writer implements Closeable {
+        private final DataOutputStream out;
+        private final int rowCount;
+
+        Writer(File file, byte kind, int rowCount) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+            this.rowCount = rowCount;
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeByte(kind);
+            out.writeInt(rowCount);
+        }
+
+        void writeStringColumn(String[] values) throws IOException {
+            checkLength(values.length);
+            Map<String, Integer> dictionary = new HashMap<>();
+            int[] codes = new int[rowCount];
+            String[] distinct = new String[Math.min(rowCount, 16)];
+            for (int i = 0; i < rowCount; i++) {
+                String value = values[i];
+                if (value == null) {
+                    codes[i] = -1;
+                    continue;
+                }
+                Integer code = dictionary.get(value);
+                if (code == null) {
+                    code = dictionary.size();
+                    dictionary.put(value, code);
+                    if (code == distinct.length) {
+                        distinct = Arrays.copyOf(distinct, code * 2);
+                    }
+                    distinct[code] = value;
+                }
+                codes[i] = code;
+            }
+
+            out.writeByte(STRING_COLUMN);
+            if (dictionary.size() > rowCount / 2) {
+                out.writeByte(PLAIN_ENCODING);
+                for (String value : values) {
+                    writeString(value);
+                }
+                return;
+            }
+
+            out.writeByte(DICTIONARY_ENCODING);
+            out.writeInt(dictionary.size());
+            for (int i = 0; i < dictionary.size(); i++) {
+                writeString(distinct[i]);
+            }
+
+            int width = codeWidth(dictionary.size());
+            out.writeByte(width);
+            for (int code : codes) {
+                if (width == 1) out.writeByte(code);
+                else if (width == 2) out.writeShort(code);
+                else out.writeInt(code);
+            }
+        }
+
+        // Varint of length + 1, 0 = null
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeByte(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int length = bytes.length + 1;
+            while ((length & ~0x7F) != 0) {
+                out.writeByte((length & 0x7F) | 0x80);
+                length >>>= 7;
+            }
+            out.writeByte(length);
+            out.write(bytes);
+        }
+
+        void writeIntColumn(int[] values) throws IOException {
+            checkLength(values.length);
+            out.writeByte(INT_COLUMN);
+            for (int value : values) {
+                out.writeInt(value);
+            }
+        }
+
+        void writeShortColumn(short[] values) throws IOException {
+            checkLength(values.length);
+            out.writeByte(SHORT_COLUMN);
+            for (short value : values) {
+                out.writeShort(value);
+            }
+        }
+
+        void writeByteColumn(byte[] values) throws IOException {
+            checkLength(values.length);
+            out.writeByte(BYTE_COLUMN);
+            out.write(values);
+        }
+
+        private void checkLength(int length) {
+            if (length != rowCount) {
+                throw new IllegalArgumentException("Column has " + length + " rows, expected " + rowCount);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    static class Reader {
+        private final ByteBuffer buffer;
+        private final int rowCount;
+
+        Reader(File file, byte kind) throws IOException {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size > Integer.MAX_VALUE) {
+                    throw new IOException("Snapshot too large: " + file);
+                }
+                // One sequential pass: read into the heap rather than map, so no mapping outlives
+                // the load and keeps the next checkpoint from replacing the file (on Windows)
+                buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        throw new IOException("Snapshot shrank while it was read: " + file);
+                    }
+                }
+                buffer.flip();
+            }
+
+            if (buffer.remaining() < 13 || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a snapshot file: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + file);
+            }
+            if (buffer.get() != kind) {
+                throw new IOException("Snapshot " + file + " holds a different kind of record");
+            }
+            rowCount = buffer.getInt();
+        }
+
+        int getRowCount() {
+            return rowCount;
+        }
+
+        // Equal values come back as the same String instance
+        String[] readStringColumn() throws IOException {
+            expect(STRING_COLUMN);
+            String[] values = new String[rowCount];
+            byte encoding = buffer.get();
+            if (encoding == PLAIN_ENCODING) {
+                for (int i = 0; i < rowCount; i++) {
+                    values[i] = readString();
+                }
+                return values;
+            }
+            if (encoding != DICTIONARY_ENCODING) {
+                throw new IOException("Corrupt snapshot: unknown string encoding " + encoding);
+            }
+
+            String[] dictionary = new String[buffer.getInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = readString();
+            }
+
+            int width = buffer.get();
+            for (int i = 0; i < rowCount; i++) {
+                int code = width == 1 ? buffer.get() : width == 2 ? buffer.getShort() : buffer.getInt();
+                values[i] = code < 0 ? null : dictionary[code];
+            }
+            return values;
+        }
+
+        private String readString() {
+            int length = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                length |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            if (length == 0) {
+                return null;
+            }
+
+            int start = buffer.position();
+            String value;
+            if (buffer.hasArray()) {
+                value = new String(buffer.array(), buffer.arrayOffset() + start, length - 1, StandardCharsets.UTF_8);
+            } else {
+                byte[] bytes = new byte[length - 1];
+                buffer.get(start, bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+            }
+            buffer.position(start + length - 1);
+            return value;
+        }
+
+        int[] readIntColumn() throws IOException {
+            expect(INT_COLUMN);
+            int[] values = new int[rowCount];
+            buffer.asIntBuffer().get(values);
+            buffer.position(buffer.position() + rowCount * Integer.BYTES);
+            return values;
+        }
+
+        short[] readShortColumn() throws IOException {
+            expect(SHORT_COLUMN);
+            short[] values = new short[rowCount];
+            buffer.asShortBuffer().get(values);
+            buffer.position(buffer.position() + rowCount * Short.BYTES);
+            return values;
+        }
+
+        byte[] readByteColumn() throws IOException {
+            expect(BYTE_COLUMN);
+            byte[] values = new byte[rowCount];
+            buffer.get(values);
+            return values;
+        }
+
+        private void expect(byte columnType) throws IOException {
+            byte actual = buffer.get();
+            if (actual != columnType) {
+                throw new IOException("Corrupt snapshot: expected column type '" + (char) columnType
+                        + "' but found '" + (char) actual + "'");
+            }
+        }
+    }
+
+    // Codes are signed so -1 can mark null
+    private static int codeWidth(int dictionarySize) {
+        if (dictionarySize <= Byte.MAX_VALUE) return 1;
+        if (dictionarySize <= Short.MAX_VALUE) return 2;
+        return 4;
+    }
+}
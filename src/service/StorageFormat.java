@@ -0,0 +1,16 @@
+package service;
+
+/**
+ * On-disk format of the data files a service loads at startup and rewrites at save/checkpoint time.
+ */
+public enum StorageFormat {
+
+    /** Human-readable CSV files (students.csv, graduate_students.csv, courses.csv). */
+    CSV,
+
+    /**
+     * Versioned columnar binary snapshots (students.snapshot, courses.snapshot).
+     * Falls back to the CSV files on first start, before any snapshot has been written.
+     */
+    BINARY
+}
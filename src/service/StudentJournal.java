@@ -0,0 +1,29 @@
+package service;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Append-only log of student mutations.
+ * Each line is one record: "PUT,S,<student row>", "PUT,G,<graduate row>" or "DEL,<id>".
+ * Rows use the same CSV layout as the snapshot files, so replay reuses the CSV parsers.
+ */
+class StudentJournal extends AppendOnlyLog {
+
+    static final String PUT = "PUT";
+    static final String DEL = "DEL";
+    static final String STUDENT = "S";
+    static final String GRADUATE = "G";
+
+    StudentJournal(File file) {
+        super(file);
+    }
+
+    static String putRecord(boolean graduate, String csvRow) {
+        return PUT + "," + (graduate ? GRADUATE : STUDENT) + "," + csvRow;
+    }
+
+    void appendDelete(String id) throws IOException {
+        append(DEL + "," + id);
+    }
+}
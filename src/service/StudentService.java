@@ -1,113 +1,393 @@
 package service;
 import entity.GraduateStudent;
+import entity.Person;
 import entity.Student;
+import exception.BatchValidationException;
 import exception.InvalidDataException;
 import exception.StudentNotFoundException;
+import util.IdRegistry;
 import util.InputValidator;
+import util.Metrics;
+import util.OperationMetrics;
+import util.PersistenceEvent;
+import util.SearchIndex;
+import util.SymbolTable;
 
 import java.io.*;
-import java.time.LocalDate;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Thread-safe: lookups, listings, search and statistics never take a lock. Mutations of one
+ * student hold that ID's lock stripe (plus the shared side of {@code storeLock}), so writers to
+ * different students run in parallel; bulk adds, loads and checkpoints take {@code storeLock}
+ * exclusively so they see and write a consistent roster.
+ */
+public class StudentService implements Closeable {
+
+    // Primary-key index; each entry keeps its insertion sequence so listings match the CSV order
+    private final Map<String, Entry> students = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Student> order = new ConcurrentSkipListMap<>();
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final SearchIndex<Student> searchIndex = new SearchIndex<>("students", Student::getId);
+    private final StudentStatistics statistics = new StudentStatistics();
+    private final List<Consumer<? super Student>> deleteListeners = new CopyOnWriteArrayList<>();
+
+    // Maintained on every put and setter call, so these lookups cost O(result)
+    private final BucketIndex<Integer, Student> byMajor = new BucketIndex<>(Student::getMajorCode);
+    private final BucketIndex<String, Student> byGrade = new BucketIndex<>(Student::calculateGrade);
+
+    private static final String STUDENT_FILE = DataPaths.file("students.csv");
+    private static final String GRADUATE_FILE = DataPaths.file("graduate_students.csv");
+    private static final String JOURNAL_FILE = DataPaths.file("students.journal");
+    private static final String SNAPSHOT_FILE = DataPaths.file("students.snapshot");
+
+    // Checkpoint once the journal holds this many records or as many as the roster, whichever is larger
+    private static final int MIN_CHECKPOINT_RECORDS = 1024;
+
+    private static final int LOCK_STRIPES = 64;  // power of two
+
+    // Latency of each operation, published over JMX (see Metrics)
+    private static final OperationMetrics ADD_METRICS = Metrics.operation("StudentService.addStudent");
+    private static final OperationMetrics ADD_BATCH_METRICS = Metrics.operation("StudentService.addStudents");
+    private static final OperationMetrics UPDATE_METRICS = Metrics.operation("StudentService.updateStudent");
+    private static final OperationMetrics DELETE_METRICS = Metrics.operation("StudentService.deleteStudent");
+    private static final OperationMetrics SEARCH_METRICS = Metrics.operation("StudentService.searchStudents");
+    private static final OperationMetrics SAVE_METRICS = Metrics.operation("StudentService.saveStudentsToFile");
+    private static final OperationMetrics LOAD_METRICS = Metrics.operation("StudentService.loadStudentsFromFile");
+
+    private final StudentJournal journal;  // null = rewrite the data files on every mutation
+    private final StorageFormat format;
+    // Set when a data file could not be read: saving the partial roster would overwrite the good
+    // files (and a checkpoint would drop the journal), so saves are refused until a clean load
+    private volatile boolean loadFailed;
+
+    private final ReentrantReadWriteLock storeLock = new ReentrantReadWriteLock();
+    private final ReentrantLock[] idLocks = new ReentrantLock[LOCK_STRIPES];
 
-public class StudentService {
 
-    private final List<Student> students;
-
-    private static final String DATA_DIR = "data";
-    private static final String STUDENT_FILE = DATA_DIR + "/students.csv";
-    private static final String GRADUATE_FILE = DATA_DIR + "/graduate_students.csv";
+    public StudentService() {
+        this(true);
+    }
 
+    /**
+     * @param journaled true to append each mutation to a journal and rewrite the CSV files
+     *                  only at checkpoint time; false to rewrite them after every mutation
+     */
+    public StudentService(boolean journaled) {
+        this(journaled, StorageFormat.CSV);
+    }
 
-    public StudentService() {
-        this.students = new ArrayList<>();
+    /**
+     * @param format format of the snapshot that is loaded at startup and written at checkpoint time
+     */
+    public StudentService(boolean journaled, StorageFormat format) {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            idLocks[i] = new ReentrantLock();
+        }
+        this.journal = journaled ? new StudentJournal(new File(JOURNAL_FILE)) : null;
+        this.format = format;
         loadStudentsFromFile();
     }
 
+    /**
+     * One-time conversion of the CSV files (plus any pending journal records) into a binary snapshot.
+     * Afterwards {@code new StudentService(journaled, StorageFormat.BINARY)} starts from the snapshot.
+     */
+    public static void convertCsvToSnapshot() throws IOException {
+        StudentService csv = new StudentService(true, StorageFormat.CSV);
+        if (csv.loadFailed) {
+            throw new IOException("Student files did not load cleanly; no snapshot written");
+        }
+        csv.checkpoint();  // fold the journal into the CSV files so both formats agree
+        csv.writeSnapshot();
+    }
+
 
     public void addStudent(Student student) throws InvalidDataException {
-        InputValidator.validateId(student.getId());
-        InputValidator.validateEmail(student.getEmail());
+        long start = System.nanoTime();
+        try {
+            InputValidator.validateId(student.getId());
+            InputValidator.validateEmail(student.getEmail());
+
+            ReentrantLock idLock = lockFor(student.getId());
+            storeLock.readLock().lock();
+            idLock.lock();
+            try {
+                if (findStudentById(student.getId()) != null) {
+                    throw new InvalidDataException("Student with ID " + student.getId() + " already exists");
+                }
+
+                putStudent(student);
+
+                // Persist immediately (use addStudents to batch)
+                persistPuts(Collections.singletonList(student));
+            } finally {
+                idLock.unlock();
+                storeLock.readLock().unlock();
+            }
+            checkpointIfNeeded();
+        } finally {
+            ADD_METRICS.recordSince(start);
+        }
+    }
+
+    /**
+     * Adds a whole batch atomically: every record is validated first (in parallel), including
+     * duplicate IDs within the batch and against stored students, and all problems are reported
+     * together. Only a fully valid batch is stored, with a single journal flush or file rewrite.
+     */
+    public void addStudents(Collection<? extends Student> batch) throws InvalidDataException {
+        long start = System.nanoTime();
+        try {
+            List<Student> items = new ArrayList<>(batch);
+            String[] problems = new String[items.size()];
+            IntStream.range(0, items.size())
+                    .parallel()
+                    .forEach(i -> problems[i] = validationError(items.get(i)));
+
+            storeLock.writeLock().lock();  // duplicate checks and inserts must see the same roster
+            try {
+                addValidatedBatch(items, problems);
+            } finally {
+                storeLock.writeLock().unlock();
+            }
+            checkpointIfNeeded();
+        } finally {
+            ADD_BATCH_METRICS.recordSince(start);
+        }
+    }
+
+    private void addValidatedBatch(List<Student> items, String[] problems) throws BatchValidationException {
+        List<String> errors = new ArrayList<>();
+        Set<String> batchIds = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            String problem = problems[i];
+            if (problem == null) {
+                String id = items.get(i).getId();
+                if (students.containsKey(id)) {
+                    problem = "Student with ID " + id + " already exists";
+                } else if (!batchIds.add(id)) {
+                    problem = "Student with ID " + id + " appears more than once in the batch";
+                }
+            }
+            if (problem != null) {
+                errors.add("record " + (i + 1) + ": " + problem);
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new BatchValidationException(errors);
+        }
+        if (items.isEmpty()) {
+            return;
+        }
+
+        for (Student student : items) {
+            putStudent(student);
+        }
+        persistPuts(items);
+    }
 
-        if (findStudentById(student.getId()) != null) {
-            throw new InvalidDataException("Student with ID " + student.getId() + " already exists");
+    private static String validationError(Student student) {
+        if (student == null) {
+            return "Student cannot be null";
+        }
+        try {
+            InputValidator.validateId(student.getId());
+            InputValidator.validateEmail(student.getEmail());
+            return null;
+        } catch (InvalidDataException e) {
+            return e.getMessage();
         }
+    }
 
-        students.add(student);
+    // Every stored student is indexed and watched, so setter calls on it keep the indexes current.
+    // Callers hold the ID's lock stripe or storeLock exclusively.
+    private void putStudent(Student student) {
+        Entry previous = students.get(student.getId());
+        long sequence = previous != null ? previous.sequence : nextSequence.getAndIncrement();
+        IdRegistry.STUDENTS.register(student.getId());  // CoEnrollmentIndex only records registered students
+        students.put(student.getId(), new Entry(sequence, student));
+        order.put(sequence, student);
+        if (previous != null && previous.student != student) {
+            previous.student.setChangeListener(null);
+        }
+        student.setChangeListener(this::onStudentChanged);
+        searchIndex.put(student);
+        statistics.put(student);
+        byMajor.put(sequence, student);
+        byGrade.put(sequence, student);
+    }
 
-        // Persist immediately (could batch, but immediate is simpler and safer)
-        saveStudentsToFile();
+    private void removeStudent(String id) {
+        Entry removed = students.remove(id);
+        if (removed != null) {
+            order.remove(removed.sequence);
+            removed.student.setChangeListener(null);
+            searchIndex.remove(id);
+            statistics.remove(id);
+            byMajor.remove(removed.sequence);
+            byGrade.remove(removed.sequence);
+        }
+    }
+
+    private void onStudentChanged(Person person) {
+        ReentrantLock idLock = lockFor(person.getId());
+        idLock.lock();  // reentrant when fired from updateStudent
+        try {
+            Entry entry = students.get(person.getId());
+            if (entry != null && entry.student == person) {
+                searchIndex.put((Student) person);
+                statistics.put((Student) person);
+                byMajor.put(entry.sequence, entry.student);  // setMajor
+                byGrade.put(entry.sequence, entry.student);  // setGpa changes the letter grade
+            }
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(String id) {
+        int h = id.hashCode();
+        return idLocks[(h ^ (h >>> 16)) & (LOCK_STRIPES - 1)];
     }
 
     public List<Student> getAllStudents() {
-        return new ArrayList<>(students);
+        return new ArrayList<>(order.values());
     }
 
     public Student findStudentById(String id) {
-        return students.stream()
-                .filter(s -> s.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        if (id == null) {
+            return null;
+        }
+        Entry entry = students.get(id);
+        return entry == null ? null : entry.student;
     }
 
     public List<Student> searchStudents(String query) {
-        if (query == null || query.trim().isEmpty()) {
-            return new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            if (query == null || query.trim().isEmpty()) {
+                return new ArrayList<>();
+            }
+            return searchIndex.search(query);
+        } finally {
+            SEARCH_METRICS.recordSince(start);
         }
-        return students.stream()
-                .filter(s -> s.matchesSearch(query))
-                .collect(Collectors.toList());
     }
 
     public void updateStudent(String id, Student updatedData)
             throws StudentNotFoundException, InvalidDataException {
+        long start = System.nanoTime();
+        try {
+            ReentrantLock idLock = lockFor(id);
+            storeLock.readLock().lock();
+            idLock.lock();
+            try {
+                Student existing = findStudentById(id);
+                if (existing == null) {
+                    throw new StudentNotFoundException(id);
+                }
 
-        Student existing = findStudentById(id);
-        if (existing == null) {
-            throw new StudentNotFoundException(id);
+                InputValidator.validateEmail(updatedData.getEmail());
+
+                // One atomic change: readers never see the new name with the old email, and the
+                // indexes are refreshed once
+                existing.update(() -> {
+                    existing.setName(updatedData.getName());
+                    existing.setEmail(updatedData.getEmail());
+                    existing.setMajor(updatedData.getMajor());
+                    existing.setSemester(updatedData.getSemester());
+                    existing.setGpa(updatedData.getGpa());
+                    existing.setAttendancePercentage(updatedData.getAttendancePercentage());
+                });
+
+                persistPuts(Collections.singletonList(existing));
+            } finally {
+                idLock.unlock();
+                storeLock.readLock().unlock();
+            }
+            checkpointIfNeeded();
+        } finally {
+            UPDATE_METRICS.recordSince(start);
         }
-
-        InputValidator.validateEmail(updatedData.getEmail());
-
-        existing.setName(updatedData.getName());
-        existing.setEmail(updatedData.getEmail());
-        existing.setMajor(updatedData.getMajor());
-        existing.setSemester(updatedData.getSemester());
-        existing.setGpa(updatedData.getGpa());
-        existing.setAttendancePercentage(updatedData.getAttendancePercentage());
-
-        saveStudentsToFile();
     }
 
     public void deleteStudent(String id) throws StudentNotFoundException {
-        Student student = findStudentById(id);
-        if (student == null) {
-            throw new StudentNotFoundException(id);
+        long start = System.nanoTime();
+        try {
+            if (id == null) {
+                throw new StudentNotFoundException(id);
+            }
+            ReentrantLock idLock = lockFor(id);
+            storeLock.readLock().lock();
+            idLock.lock();
+            try {
+                Student deleted = findStudentById(id);
+                if (deleted == null) {
+                    throw new StudentNotFoundException(id);
+                }
+
+                removeStudent(id);
+                persistDelete(id);
+                // Still under the ID lock, so a new student with this ID cannot be added meanwhile
+                for (Consumer<? super Student> listener : deleteListeners) {
+                    listener.accept(deleted);
+                }
+            } finally {
+                idLock.unlock();
+                storeLock.readLock().unlock();
+            }
+            checkpointIfNeeded();
+        } finally {
+            DELETE_METRICS.recordSince(start);
         }
+    }
 
-        students.remove(student);
-        saveStudentsToFile();
+
+    /**
+     * Registers a callback for students removed by {@link #deleteStudent}, e.g. so
+     * EnrollmentService can release their seats. It runs on the deleting thread.
+     */
+    public void addDeleteListener(Consumer<? super Student> listener) {
+        deleteListeners.add(listener);
     }
 
+    public void removeDeleteListener(Consumer<? super Student> listener) {
+        deleteListeners.remove(listener);
+    }
 
     public List<Student> getStudentsByMajor(String major) {
-        return students.stream()
-                .filter(s -> s.getMajor().equalsIgnoreCase(major))
-                .collect(Collectors.toList());
+        int code = SymbolTable.codeOf(major);  // same match as equalsIgnoreCase, compared as ints
+        if (code == SymbolTable.NO_CODE) {
+            return new ArrayList<>();
+        }
+        return byMajor.get(code);
     }
 
     public List<Student> getStudentsByGrade(String letterGrade) {
-        return students.stream()
-                .filter(s -> s.calculateGrade().equals(letterGrade))
-                .collect(Collectors.toList());
+        return byGrade.get(letterGrade);
     }
 
     public List<GraduateStudent> getGraduateStudents() {
         List<GraduateStudent> gradStudents = new ArrayList<>();
-        for (Student student : students) {
+        for (Student student : order.values()) {
             if (student instanceof GraduateStudent) {
                 gradStudents.add((GraduateStudent) student);
             }
@@ -117,100 +397,323 @@ public class StudentService {
 
 
     public double calculateAverageGPA() {
-        return students.stream()
-                .mapToDouble(Student::getGpa)
-                .average()
-                .orElse(0.0);
+        return statistics.getAverageGpa();
     }
 
+    // O(1): all figures are maintained incrementally as students change
     public Map<String, Object> getStatistics() {
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalStudents", students.size());
-        stats.put("averageGPA", calculateAverageGPA());
-        stats.put("graduateStudents", getGraduateStudents().size());
-
-        // Grade distribution using grouping
-        Map<String, Long> gradeDistribution = students.stream()
-                .collect(Collectors.groupingBy(Student::calculateGrade, Collectors.counting()));
-        stats.put("gradeDistribution", gradeDistribution);
+        stats.put("totalStudents", statistics.getCount());
+        stats.put("averageGPA", statistics.getAverageGpa());
+        stats.put("graduateStudents", statistics.getGraduateCount());
+        stats.put("gradeDistribution", statistics.getGradeDistribution());
 
         return stats;
     }
 
-    private void saveStudentsToFile() {
-        File dataDir = new File(DATA_DIR);
-        if (!dataDir.exists()) {
-            dataDir.mkdirs();
+    /**
+     * Writes the whole roster to the CSV files and empties the journal.
+     * Has the same effect as the old save-after-every-mutation behaviour, just less often.
+     */
+    public void checkpoint() {
+        storeLock.writeLock().lock();  // no mutation may land between the save and the truncation
+        try {
+            if (!saveStudentsToFile()) {
+                return;  // keep the journal, it is still needed to rebuild the roster
+            }
+            if (journal != null) {
+                try {
+                    journal.reset();
+                } catch (IOException e) {
+                    System.err.println("Error truncating student journal: " + e.getMessage());
+                }
+            }
+        } finally {
+            storeLock.writeLock().unlock();
         }
+    }
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(STUDENT_FILE))) {
-            writer.write("ID,Name,Email,DateOfBirth,Major,Semester,GPA,Attendance\n");
+    @Override
+    public void close() {
+        if (journal != null) {
+            checkpoint();
+        }
+    }
 
-            for (Student student : students) {
-                if (!(student instanceof GraduateStudent)) {
-                    writer.write(studentToCSV(student));
-                    writer.newLine();
-                }
+    // Exactly one flush per call; the caller runs checkpointIfNeeded() once its locks are released
+    private void persistPuts(List<Student> changed) {
+        if (journal == null) {
+            saveStudentsToFile();
+            return;
+        }
+
+        List<String> records = new ArrayList<>(changed.size());
+        for (Student student : changed) {
+            if (student instanceof GraduateStudent) {
+                records.add(StudentJournal.putRecord(true, graduateStudentToCSV((GraduateStudent) student)));
+            } else {
+                records.add(StudentJournal.putRecord(false, studentToCSV(student)));
             }
+        }
+        try {
+            journal.append(records);
+        } catch (IOException e) {
+            System.err.println("Error writing student journal: " + e.getMessage());
+            saveStudentsToFile();  // fall back to a full rewrite so the change is not lost
+        }
+    }
+
+    private void persistDelete(String id) {
+        if (journal == null) {
+            saveStudentsToFile();
+            return;
+        }
+        try {
+            journal.appendDelete(id);
         } catch (IOException e) {
-            System.err.println("Error saving students: " + e.getMessage());
+            System.err.println("Error writing student journal: " + e.getMessage());
+            saveStudentsToFile();
         }
+    }
+
+    // Amortises the O(N) rewrite over at least N journal appends.
+    // Must be called without holding storeLock (it cannot be upgraded to the write lock).
+    private void checkpointIfNeeded() {
+        if (journal != null && journal.getRecordCount() >= checkpointThreshold()) {
+            checkpoint();
+        }
+    }
+
+    private int checkpointThreshold() {
+        return Math.max(MIN_CHECKPOINT_RECORDS, students.size());
+    }
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(GRADUATE_FILE))) {
-            writer.write("ID,Name,Email,DateOfBirth,Major,Semester,GPA,Attendance,ThesisTitle,Advisor,ResearchArea,ThesisSubmitted\n");
+    // Serialised: without a journal every mutation saves, possibly from several threads at once
+    private synchronized boolean saveStudentsToFile() {
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            if (loadFailed) {
+                System.err.println("Not saving students: the data files did not load cleanly and would be overwritten");
+                return false;
+            }
+            File dataDir = new File(DataPaths.DATA_DIR);
+            if (!dataDir.exists()) {
+                dataDir.mkdirs();
+            }
 
-            for (Student student : students) {
-                if (student instanceof GraduateStudent) {
-                    writer.write(graduateStudentToCSV((GraduateStudent) student));
-                    writer.newLine();
+            if (format == StorageFormat.BINARY) {
+                try {
+                    writeSnapshot();
+                    return true;
+                } catch (IOException e) {
+                    System.err.println("Error saving student snapshot: " + e.getMessage());
+                    return false;
                 }
             }
+
+            // Write to temp files and swap them in, so a crash mid-save never leaves a truncated
+            // snapshot behind while the journal still assumes it is complete
+            File studentTmp = new File(STUDENT_FILE + ".tmp");
+            File graduateTmp = new File(GRADUATE_FILE + ".tmp");
+
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(studentTmp))) {
+                writer.write("ID,Name,Email,DateOfBirth,Major,Semester,GPA,Attendance\n");
+
+                for (Student student : order.values()) {
+                    if (!(student instanceof GraduateStudent)) {
+                        writer.write(studentToCSV(student));
+                        writer.newLine();
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error saving students: " + e.getMessage());
+                studentTmp.delete();
+                return false;
+            }
+
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(graduateTmp))) {
+                writer.write("ID,Name,Email,DateOfBirth,Major,Semester,GPA,Attendance,ThesisTitle,Advisor,ResearchArea,ThesisSubmitted\n");
+
+                for (Student student : order.values()) {
+                    if (student instanceof GraduateStudent) {
+                        writer.write(graduateStudentToCSV((GraduateStudent) student));
+                        writer.newLine();
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error saving graduate students: " + e.getMessage());
+                studentTmp.delete();
+                graduateTmp.delete();
+                return false;
+            }
+
+            return replaceFile(studentTmp, new File(STUDENT_FILE))
+                    && replaceFile(graduateTmp, new File(GRADUATE_FILE));
+        } finally {
+            SAVE_METRICS.recordSince(start);
+            event.end();
+            if (event.shouldCommit()) {
+                commitPersistenceEvent(event, "save");
+            }
+        }
+    }
+
+    private synchronized void writeSnapshot() throws IOException {
+        File tmp = new File(SNAPSHOT_FILE + ".tmp");
+        try {
+            StudentSnapshot.write(tmp, new ArrayList<>(order.values()));  // fixed row count
+        } catch (IOException e) {
+            tmp.delete();
+            throw e;
+        }
+        if (!replaceFile(tmp, new File(SNAPSHOT_FILE))) {
+            throw new IOException("Could not replace " + SNAPSHOT_FILE);
+        }
+    }
+
+    private boolean replaceFile(File source, File target) {
+        try {
+            Files.move(source.toPath(), target.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
         } catch (IOException e) {
-            System.err.println("Error saving graduate students: " + e.getMessage());
+            System.err.println("Error replacing " + target + ": " + e.getMessage());
+            return false;
         }
     }
 
     private void loadStudentsFromFile() {
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            storeLock.writeLock().lock();
+            try {
+                loadLocked();
+            } finally {
+                storeLock.writeLock().unlock();
+            }
+        } finally {
+            LOAD_METRICS.recordSince(start);
+            event.end();
+            if (event.shouldCommit()) {
+                commitPersistenceEvent(event, "load");
+            }
+        }
+    }
+
+    // Only called while the event is enabled: sizing the files costs a stat call each
+    private void commitPersistenceEvent(PersistenceEvent event, String operation) {
+        event.store = "students";
+        event.operation = operation;
+        event.format = format.name();
+        event.rows = order.size();
+        event.bytes = dataFileBytes();
+        event.commit();
+    }
+
+    // Size of the files the current format loads from (the CSV files until a snapshot exists)
+    private long dataFileBytes() {
+        File snapshot = new File(SNAPSHOT_FILE);
+        if (format == StorageFormat.BINARY && snapshot.exists()) {
+            return snapshot.length();
+        }
+        return new File(STUDENT_FILE).length() + new File(GRADUATE_FILE).length();
+    }
+
+    private void loadLocked() {
+        for (Student student : order.values()) {
+            student.setChangeListener(null);
+        }
         students.clear();
+        order.clear();
+        searchIndex.clear();
+        statistics.clear();
+        byMajor.clear();
+        byGrade.clear();
+        loadFailed = false;
+
+        File snapshotFile = new File(SNAPSHOT_FILE);
+        if (format == StorageFormat.BINARY && snapshotFile.exists()) {
+            try {
+                for (Student student : StudentSnapshot.read(snapshotFile)) {
+                    putStudent(student);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error loading student snapshot: " + e.getMessage());
+                loadFailed = true;
+            }
+            if (journal != null) {
+                replayJournal();
+            }
+            return;
+        }
 
+        // Rows are parsed in parallel; indexing them stays single-threaded and in file order
         File studentFile = new File(STUDENT_FILE);
         if (studentFile.exists()) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(studentFile))) {
-                reader.readLine();
-
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    Student student = csvToStudent(line);
-                    if (student != null) {
-                        students.add(student);
-                    }
+            try {
+                for (Student student : CsvChunkLoader.load(studentFile, this::csvToStudent)) {
+                    putStudent(student);
                 }
             } catch (IOException e) {
                 System.err.println("Error loading students: " + e.getMessage());
+                loadFailed = true;
             }
         }
 
 
         File gradFile = new File(GRADUATE_FILE);
         if (gradFile.exists()) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(gradFile))) {
-                reader.readLine();
-
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    GraduateStudent student = csvToGraduateStudent(line);
-                    if (student != null) {
-                        students.add(student);
-                    }
+            try {
+                for (Student student : CsvChunkLoader.load(gradFile, this::csvToGraduateStudent)) {
+                    putStudent(student);
                 }
             } catch (IOException e) {
                 System.err.println("Error loading graduate students: " + e.getMessage());
+                loadFailed = true;
             }
         }
+
+        if (journal != null) {
+            replayJournal();
+        }
     }
 
+    // Re-applies mutations made since the last checkpoint on top of the CSV snapshot
+    private void replayJournal() {
+        List<String> records;
+        try {
+            records = journal.readRecords();
+        } catch (IOException e) {
+            System.err.println("Error reading student journal: " + e.getMessage());
+            loadFailed = true;
+            return;
+        }
+
+        for (String record : records) {
+            String[] head = record.split(",", 3);
+            if (head.length < 2) continue;
+
+            if (head[0].equals(StudentJournal.DEL)) {
+                removeStudent(head[1]);
+            } else if (head[0].equals(StudentJournal.PUT) && head.length == 3) {
+                CsvChunkLoader.Row row = CsvChunkLoader.Row.of(head[2]);
+                Student student = head[1].equals(StudentJournal.GRADUATE)
+                        ? csvToGraduateStudent(row)
+                        : csvToStudent(row);
+                if (student == null) continue;
+
+                putStudent(student);  // keeps the original position on update
+            }
+        }
+    }
+
+    // Rows are formatted inside read() so a concurrent update() is never written half-applied
     private String studentToCSV(Student student) {
-        return String.format("%s,%s,%s,%s,%s,%d,%.2f,%d",
+        return student.read(() -> String.format("%s,%s,%s,%s,%s,%d,%.2f,%d",
                 student.getId(),
                 student.getName(),
                 student.getEmail(),
@@ -219,11 +722,11 @@ public class StudentService {
                 student.getSemester(),
                 student.getGpa(),
                 student.getAttendancePercentage()
-        );
+        ));
     }
 
     private String graduateStudentToCSV(GraduateStudent student) {
-        return String.format("%s,%s,%s,%s,%s,%d,%.2f,%d,%s,%s,%s,%b",
+        return student.read(() -> String.format("%s,%s,%s,%s,%s,%d,%.2f,%d,%s,%s,%s,%b",
                 student.getId(),
                 student.getName(),
                 student.getEmail(),
@@ -236,21 +739,20 @@ public class StudentService {
                 student.getAdvisor(),
                 student.getResearchArea(),
                 student.isThesisSubmitted()
-        );
+        ));
     }
 
-    private Student csvToStudent(String csv) {
+    private Student csvToStudent(CsvChunkLoader.Row row) {
         try {
-            String[] parts = csv.split(",");
-            if (parts.length < 8) return null;
+            if (row.size() < 8) return null;
 
             Student student = new Student(
-                    parts[0], parts[1], parts[2],
-                    LocalDate.parse(parts[3]),
-                    parts[4], Integer.parseInt(parts[5])
+                    row.string(0), row.string(1), row.string(2),
+                    row.date(3),
+                    row.string(4), row.intValue(5)
             );
-            student.setGpa(Double.parseDouble(parts[6]));
-            student.setAttendancePercentage(Integer.parseInt(parts[7]));
+            student.setGpa(row.doubleValue(6));
+            student.setAttendancePercentage(row.intValue(7));
 
             return student;
         } catch (Exception e) {
@@ -259,21 +761,20 @@ public class StudentService {
         }
     }
 
-    private GraduateStudent csvToGraduateStudent(String csv) {
+    private GraduateStudent csvToGraduateStudent(CsvChunkLoader.Row row) {
         try {
-            String[] parts = csv.split(",");
-            if (parts.length < 12) return null;
+            if (row.size() < 12) return null;
 
             GraduateStudent student = new GraduateStudent(
-                    parts[0], parts[1], parts[2],
-                    LocalDate.parse(parts[3]),
-                    parts[4], Integer.parseInt(parts[5]),
-                    parts[8], parts[9]
+                    row.string(0), row.string(1), row.string(2),
+                    row.date(3),
+                    row.string(4), row.intValue(5),
+                    row.string(8), row.string(9)
             );
-            student.setGpa(Double.parseDouble(parts[6]));
-            student.setAttendancePercentage(Integer.parseInt(parts[7]));
-            student.setResearchArea(parts[10]);
-            student.setThesisSubmitted(Boolean.parseBoolean(parts[11]));
+            student.setGpa(row.doubleValue(6));
+            student.setAttendancePercentage(row.intValue(7));
+            student.setResearchArea(row.string(10));
+            student.setThesisSubmitted(row.booleanValue(11));
 
             return student;
         } catch (Exception e) {
@@ -281,4 +782,14 @@ public class StudentService {
             return null;
         }
     }
+
+    private static class Entry {
+        final long sequence;
+        final Student student;
+
+        Entry(long sequence, Student student) {
+            this.sequence = sequence;
+            this.student = student;
+        }
+    }
 }
\ No newline at end of file
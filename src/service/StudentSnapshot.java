@@ -0,0 +1,123 @@
+package service;
+
+import entity.GraduateStudent;
+import entity.Student;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Binary snapshot of the roster: one row per student, graduate-only columns null for undergraduates.
+ * Dates are stored as epoch days and GPA as hundredths (the same precision the CSV keeps).
+ */
+class StudentSnapshot {
+
+    private static final byte UNDERGRADUATE = 0;
+    private static final byte GRADUATE = 1;
+
+    private StudentSnapshot() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    static void write(File file, Collection<Student> students) throws IOException {
+        int n = students.size();
+        byte[] kind = new byte[n];
+        String[] id = new String[n];
+        String[] name = new String[n];
+        String[] email = new String[n];
+        int[] dateOfBirth = new int[n];
+        String[] major = new String[n];
+        int[] semester = new int[n];
+        short[] gpa = new short[n];
+        byte[] attendance = new byte[n];
+        String[] thesisTitle = new String[n];
+        String[] advisor = new String[n];
+        String[] researchArea = new String[n];
+        byte[] thesisSubmitted = new byte[n];
+
+        int i = 0;
+        for (Student student : students) {
+            int row = i++;
+            student.read(() -> {  // one consistent row even if an update() is in flight
+                id[row] = student.getId();
+                name[row] = student.getName();
+                email[row] = student.getEmail();
+                dateOfBirth[row] = (int) student.getDateOfBirth().toEpochDay();
+                major[row] = student.getMajor();
+                semester[row] = student.getSemester();
+                gpa[row] = (short) Math.round(student.getGpa() * 100);
+                attendance[row] = (byte) student.getAttendancePercentage();
+                if (student instanceof GraduateStudent) {
+                    GraduateStudent grad = (GraduateStudent) student;
+                    kind[row] = GRADUATE;
+                    thesisTitle[row] = grad.getThesisTitle();
+                    advisor[row] = grad.getAdvisor();
+                    researchArea[row] = grad.getResearchArea();
+                    thesisSubmitted[row] = (byte) (grad.isThesisSubmitted() ? 1 : 0);
+                } else {
+                    kind[row] = UNDERGRADUATE;
+                }
+                return null;
+            });
+        }
+
+        try (SnapshotIO.Writer writer = new SnapshotIO.Writer(file, SnapshotIO.KIND_STUDENTS, n)) {
+            writer.writeByteColumn(kind);
+            writer.writeStringColumn(id);
+            writer.writeStringColumn(name);
+            writer.writeStringColumn(email);
+            writer.writeIntColumn(dateOfBirth);
+            writer.writeStringColumn(major);
+            writer.writeIntColumn(semester);
+            writer.writeShortColumn(gpa);
+            writer.writeByteColumn(attendance);
+            writer.writeStringColumn(thesisTitle);
+            writer.writeStringColumn(advisor);
+            writer.writeStringColumn(researchArea);
+            writer.writeByteColumn(thesisSubmitted);
+        }
+    }
+
+    static List<Student> read(File file) throws IOException {
+        SnapshotIO.Reader reader = new SnapshotIO.Reader(file, SnapshotIO.KIND_STUDENTS);
+        byte[] kind = reader.readByteColumn();
+        String[] id = reader.readStringColumn();
+        String[] name = reader.readStringColumn();
+        String[] email = reader.readStringColumn();
+        int[] dateOfBirth = reader.readIntColumn();
+        String[] major = reader.readStringColumn();
+        int[] semester = reader.readIntColumn();
+        short[] gpa = reader.readShortColumn();
+        byte[] attendance = reader.readByteColumn();
+        String[] thesisTitle = reader.readStringColumn();
+        String[] advisor = reader.readStringColumn();
+        String[] researchArea = reader.readStringColumn();
+        byte[] thesisSubmitted = reader.readByteColumn();
+
+        List<Student> students = new ArrayList<>(reader.getRowCount());
+        for (int i = 0; i < reader.getRowCount(); i++) {
+            try {
+                LocalDate dob = LocalDate.ofEpochDay(dateOfBirth[i]);
+                Student student;
+                if (kind[i] == GRADUATE) {
+                    GraduateStudent grad = new GraduateStudent(id[i], name[i], email[i], dob,
+                            major[i], semester[i], thesisTitle[i], advisor[i]);
+                    grad.setResearchArea(researchArea[i]);
+                    grad.setThesisSubmitted(thesisSubmitted[i] != 0);
+                    student = grad;
+                } else {
+                    student = new Student(id[i], name[i], email[i], dob, major[i], semester[i]);
+                }
+                student.setGpa(gpa[i] / 100.0);
+                student.setAttendancePercentage(attendance[i]);
+                students.add(student);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Error reading student snapshot row " + i + ": " + e.getMessage());
+            }
+        }
+        return students;
+    }
+}
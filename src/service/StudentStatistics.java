@@ -0,0 +1,143 @@
+package service;
+
+import entity.GraduateStudent;
+import entity.Student;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running aggregates over the roster, updated per add/update/delete so reads are O(1).
+ * Remembers what each student contributed, so an update can back out the old values
+ * even when the Student object was already modified in place.
+ *
+ * Safe for concurrent use as long as callers do not put/remove the same ID concurrently
+ * (StudentService serialises those with its per-ID locks); the counts are striped adders,
+ * so readers never block and see each change either fully applied or not at all per figure.
+ * The GPA sum and its count change together under a short lock, so the average is always
+ * taken over one consistent pair.
+ */
+class StudentStatistics {
+
+    private static final String[] GRADES = {"A", "B", "C", "D", "F"};
+
+    private final Map<String, Contribution> contributions = new ConcurrentHashMap<>();
+    private final LongAdder[] gradeCounts = new LongAdder[GRADES.length];
+    private final LongAdder graduateCount = new LongAdder();
+
+    // GPA in exact hundredths (the precision snapshots store), so add/subtract cycles never drift
+    private long gpaHundredths;  // guarded by this
+    private int gpaCount;        // guarded by this
+
+    StudentStatistics() {
+        for (int i = 0; i < GRADES.length; i++) {
+            gradeCounts[i] = new LongAdder();
+        }
+    }
+
+    /** Adds the student, or replaces its previous contribution. */
+    void put(Student student) {
+        Contribution previous = contributions.get(student.getId());
+        Contribution current = new Contribution(
+                student.getGpa(),
+                gradeIndex(student.calculateGrade()),  // GraduateStudent uses its own scale
+                student instanceof GraduateStudent
+        );
+        if (previous != null && previous.sameAs(current)) {
+            return;
+        }
+        previous = contributions.put(student.getId(), current);
+        if (previous != null) {
+            subtract(previous);
+        }
+        add(current);
+    }
+
+    void remove(String id) {
+        Contribution previous = contributions.remove(id);
+        if (previous != null) {
+            subtract(previous);
+        }
+    }
+
+    void clear() {
+        contributions.clear();
+        for (LongAdder count : gradeCounts) {
+            count.reset();
+        }
+        graduateCount.reset();
+        synchronized (this) {
+            gpaHundredths = 0;
+            gpaCount = 0;
+        }
+    }
+
+    int getCount() {
+        return contributions.size();
+    }
+
+    int getGraduateCount() {
+        return graduateCount.intValue();
+    }
+
+    synchronized double getAverageGpa() {
+        // One rounding step: the correctly rounded mean of the two-decimal GPAs
+        return gpaCount == 0 ? 0.0 : gpaHundredths / (100.0 * gpaCount);
+    }
+
+    // Only grades that occur, like Collectors.groupingBy would produce
+    Map<String, Long> getGradeDistribution() {
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        for (int i = 0; i < GRADES.length; i++) {
+            long count = gradeCounts[i].sum();
+            if (count > 0) {
+                distribution.put(GRADES[i], count);
+            }
+        }
+        return distribution;
+    }
+
+    private void add(Contribution c) {
+        synchronized (this) {
+            gpaHundredths += c.gpaHundredths;
+            gpaCount++;
+        }
+        gradeCounts[c.gradeIndex].increment();
+        if (c.graduate) graduateCount.increment();
+    }
+
+    private void subtract(Contribution c) {
+        synchronized (this) {
+            gpaHundredths -= c.gpaHundredths;
+            gpaCount--;
+        }
+        gradeCounts[c.gradeIndex].decrement();
+        if (c.graduate) graduateCount.decrement();
+    }
+
+    private static int gradeIndex(String grade) {
+        for (int i = 0; i < GRADES.length; i++) {
+            if (GRADES[i].equals(grade)) {
+                return i;
+            }
+        }
+        return GRADES.length - 1;
+    }
+
+    private static class Contribution {
+        final long gpaHundredths;
+        final int gradeIndex;
+        final boolean graduate;
+
+        Contribution(double gpa, int gradeIndex, boolean graduate) {
+            this.gpaHundredths = Math.round(gpa * 100);
+            this.gradeIndex = gradeIndex;
+            this.graduate = graduate;
+        }
+
+        boolean sameAs(Contribution other) {
+            return gpaHundredths == other.gpaHundredths && gradeIndex == other.gradeIndex && graduate == other.graduate;
+        }
+    }
+}
@@ -3,9 +3,22 @@ package util;
 import entity.Course;
 import entity.Student;
 import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class AIHelper {
 
+    /** Number of recommendations the string API returns. */
+    public static final int DEFAULT_LIMIT = 5;
+
+    // Only recommend if meets minimum threshold (50% = 5/10 points)
+    private static final int MIN_SCORE = 5;
+
+    // Latency per student scored, and per batch call
+    private static final OperationMetrics RECOMMEND_METRICS = Metrics.operation("AIHelper.recommendCourses");
+    private static final OperationMetrics RECOMMEND_BATCH_METRICS = Metrics.operation("AIHelper.recommendCoursesBatch");
+
     private AIHelper() {
         throw new UnsupportedOperationException("Utility class cannot be instantiated");
     }
@@ -15,85 +28,263 @@ public class AIHelper {
         if (student == null || availableCourses == null || availableCourses.isEmpty()) {
             return new ArrayList<>();
         }
+        return format(recommend(student, CourseFeatureTable.of(availableCourses), DEFAULT_LIMIT));
+    }
+
+    /** Same as above, scoring against a prebuilt table (e.g. {@code courseService.getFeatureTable()}). */
+    public static List<String> recommendCourses(Student student, CourseFeatureTable catalog) {
+        return format(recommend(student, catalog, DEFAULT_LIMIT));
+    }
+
+    /**
+     * Recommendations for many students at once, keyed by student ID in the order given.
+     * The catalog is analysed once and shared read-only by all workers; students are scored
+     * in parallel on the common fork-join pool. Each list equals what
+     * {@link #recommendCourses(Student, List)} returns for that student.
+     */
+    public static Map<String, List<String>> recommendCourses(Collection<? extends Student> students,
+                                                             List<Course> availableCourses) {
+        return recommendCourses(students, availableCourses, student -> true);
+    }
 
-        String studentMajor = student.getMajor();
-        double studentGpa = student.getGpa();
-        int studentSemester = student.getSemester();
-        List<String> enrolledCourses = student.getEnrolledCourses();
+    /** Same as above, restricted to the cohort the filter accepts (e.g. one major or semester). */
+    public static Map<String, List<String>> recommendCourses(Collection<? extends Student> students,
+                                                             List<Course> availableCourses,
+                                                             Predicate<? super Student> cohort) {
+        return recommendCourses(students, CourseFeatureTable.of(
+                availableCourses == null ? Collections.emptyList() : availableCourses), cohort);
+    }
+
+    /** Batch scoring against a prebuilt table, shared read-only by all workers. */
+    public static Map<String, List<String>> recommendCourses(Collection<? extends Student> students,
+                                                             CourseFeatureTable catalog,
+                                                             Predicate<? super Student> cohort) {
+        Map<String, List<String>> results = new LinkedHashMap<>();
+        recommend(students, catalog, cohort, DEFAULT_LIMIT)
+                .forEach((id, recommendations) -> results.put(id, format(recommendations)));
+        return results;
+    }
+
+    /**
+     * The best {@code limit} courses for the student, best first (ties in catalog order), as typed
+     * results without any string formatting. Selection uses a bounded heap, so the cost is
+     * O(courses * log limit) and nothing is allocated per candidate course.
+     */
+    public static List<Recommendation> recommend(Student student, CourseFeatureTable catalog, int limit) {
+        return recommend(student, catalog, limit, null);
+    }
 
+    /**
+     * Same as above; if {@code nearMisses} is given, it also receives the IDs of the full courses
+     * that the point for a free seat would have brought into the result. Those and the courses
+     * in the result are the only ones whose filling up or freeing a seat can change it.
+     */
+    static List<Recommendation> recommend(Student student, CourseFeatureTable catalog, int limit,
+                                          List<String> nearMisses) {
+        RecommendationEvent event = new RecommendationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            if (student == null || catalog == null || catalog.size() == 0 || limit <= 0) {
+                return new ArrayList<>();
+            }
 
-        List<CourseRecommendation> scoredCourses = new ArrayList<>();
+            String studentMajor = student.getMajor();
+            double studentGpa = student.getGpa();
+            int studentSemester = student.getSemester();
+            int majorDepartment = student.getMajorCode();  // same codes as the table's departments
+            int majorFields = CourseFeatureTable.fieldMaskOf(studentMajor);
+            long[] completed = catalog.toRowBitset(student.getCompletedCourses());
+            long[] taken = catalog.toRowBitset(student.getEnrolledCourses());  // O(1) skip test per row
+
+            // Min-heap of (score << 32 | MAX_VALUE - row): the root is the weakest kept candidate,
+            // and on equal scores the later row is weaker, which keeps ties in catalog order
+            long[] heap = new long[Math.min(limit, catalog.size())];
+            int size = 0;
+
+            for (int row = 0; row < catalog.size(); row++) {
+                long bit = 1L << row;
+                if (((completed[row >>> 6] | taken[row >>> 6]) & bit) != 0) {
+                    continue;  // already passed or enrolled
+                }
+
+                int breakdown = scoreBreakdown(catalog, row, majorDepartment, majorFields,
+                        studentSemester, studentGpa, completed);
+                int totalScore = totalOf(breakdown);
+                if (totalScore < MIN_SCORE) {
+                    continue;
+                }
+
+                long key = ((long) totalScore << 32) | (Integer.MAX_VALUE - row);
+                if (size < heap.length) {
+                    heap[size] = key;
+                    siftUp(heap, size++);
+                } else if (key > heap[0]) {
+                    heap[0] = key;
+                    siftDown(heap, size);
+                }
+            }
 
-        for (Course course : availableCourses) {
-            if (enrolledCourses.contains(course.getCourseId())) {
-                continue;
+            if (nearMisses != null) {
+                // A full course scores one point less; would that point have beaten the weakest kept?
+                long weakest = size < heap.length ? Long.MIN_VALUE : heap[0];
+                for (int row = 0; row < catalog.size(); row++) {
+                    long bit = 1L << row;
+                    if (((completed[row >>> 6] | taken[row >>> 6]) & bit) != 0 || !catalog.isFull(row)) {
+                        continue;
+                    }
+                    int totalScore = totalOf(scoreBreakdown(catalog, row, majorDepartment, majorFields,
+                            studentSemester, studentGpa, completed)) + 1;
+                    long key = ((long) totalScore << 32) | (Integer.MAX_VALUE - row);
+                    if (totalScore >= MIN_SCORE && key > weakest) {
+                        nearMisses.add(catalog.getCourseId(row));
+                    }
+                }
             }
 
-            int totalScore = 0;
-            Map<String, Integer> scoreBreakdown = new HashMap<>();
-
-            // FACTOR 1: Major Alignment (0-4 points, 40% weight)
-            int majorScore = 0;
-            if (course.getDepartment() != null &&
-                    course.getDepartment().equalsIgnoreCase(studentMajor)) {
-                majorScore = 4;  // Perfect match: in-major course
-            } else if (course.getDepartment() != null &&
-                    isRelatedMajor(studentMajor, course.getDepartment())) {
-                majorScore = 2;  // Partial match: related field
+            // Pop weakest first, filling the result from the back
+            Recommendation[] ranked = new Recommendation[size];
+            while (size > 0) {
+                int row = Integer.MAX_VALUE - (int) heap[0];
+                heap[0] = heap[--size];
+                siftDown(heap, size);
+
+                int breakdown = scoreBreakdown(catalog, row, majorDepartment, majorFields,
+                        studentSemester, studentGpa, completed);
+                ranked[size] = new Recommendation(catalog.getCourse(row),
+                        (breakdown >>> 12) & 0xF, (breakdown >>> 8) & 0xF,
+                        (breakdown >>> 4) & 0xF, breakdown & 0xF);
             }
-            scoreBreakdown.put("Major Match", majorScore);
-            totalScore += majorScore;
-
-            // FAcTOR 2: Prerequisite Readiness (0-3 points, 30% weight)
-            int prereqScore = calculatePrerequisiteScore(
-                    studentSemester, course.getCredits(), course.getCourseId()
-            );
-            scoreBreakdown.put("Prerequisites", prereqScore);
-            totalScore += prereqScore;
-
-            // FACTOR 3: GPA vs Difficulty Matching (0-2 points, 20% weight)
-            int difficultyScore = matchGpaToCourseDifficulty(studentGpa, course.getCredits());
-            scoreBreakdown.put("Difficulty Match", difficultyScore);
-            totalScore += difficultyScore;
-
-            // FACTOR 4: Availability (0-1 point, 10% weight)
-            int availScore = course.isFull() ? 0 : 1;
-            scoreBreakdown.put("Available", availScore);
-            totalScore += availScore;
-
-            // Only recommend if meets minimum threshold (50% = 5/10 points)
-            if (totalScore >= 5) {
-                scoredCourses.add(new CourseRecommendation(course, totalScore, scoreBreakdown));
+            return new ArrayList<>(Arrays.asList(ranked));
+        } finally {
+            RECOMMEND_METRICS.recordSince(start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.students = 1;
+                event.courses = catalog == null ? 0 : catalog.size();
+                event.limit = limit;
+                event.commit();
             }
         }
+    }
 
-        scoredCourses.sort((a, b) -> Integer.compare(b.score, a.score));
+    /** Typed batch variant: the best {@code limit} courses per selected student, in parallel. */
+    public static Map<String, List<Recommendation>> recommend(Collection<? extends Student> students,
+                                                              CourseFeatureTable catalog,
+                                                              Predicate<? super Student> cohort,
+                                                              int limit) {
+        RecommendationEvent event = new RecommendationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            Map<String, List<Recommendation>> results = new LinkedHashMap<>();
+            if (students == null || students.isEmpty()) {
+                return results;
+            }
 
-        List<String> recommendations = new ArrayList<>();
-        int count = Math.min(5, scoredCourses.size());
+            List<Student> selected = new ArrayList<>(students.size());
+            for (Student student : students) {
+                if (student != null && cohort.test(student)) {
+                    selected.add(student);
+                }
+            }
 
-        for (int i = 0; i < count; i++) {
-            CourseRecommendation rec = scoredCourses.get(i);
-            Course c = rec.course;
+            // An ordered parallel stream collects in index order, whichever thread scored each student
+            List<List<Recommendation>> lists = IntStream.range(0, selected.size())
+                    .parallel()
+                    .mapToObj(i -> recommend(selected.get(i), catalog, limit))
+                    .collect(Collectors.toList());
 
-            String breakdown = formatScoreBreakdown(rec.breakdown);
-            String recommendation = String.format(
-                    "%s - %s (Match Score: %d/10) %s",
-                    c.getCourseId(),
-                    c.getCourseName(),
-                    rec.score,
-                    breakdown
-            );
-            recommendations.add(recommendation);
+            for (int i = 0; i < lists.size(); i++) {
+                results.put(selected.get(i).getId(), lists.get(i));
+            }
+            return results;
+        } finally {
+            RECOMMEND_BATCH_METRICS.recordSince(start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.students = students == null ? 0 : students.size();
+                event.courses = catalog == null ? 0 : catalog.size();
+                event.limit = limit;
+                event.commit();
+            }
         }
+    }
+
+    /** Optional last step: the display strings the original API returns. */
+    public static List<String> format(List<Recommendation> recommendations) {
+        List<String> formatted = new ArrayList<>(recommendations.size());
+        for (Recommendation recommendation : recommendations) {
+            formatted.add(recommendation.format());
+        }
+        return formatted;
+    }
+
+    // The four factor scores packed into 4-bit fields: major, prerequisites, difficulty, availability
+    private static int scoreBreakdown(CourseFeatureTable catalog, int row, int majorDepartment,
+                                      int majorFields, int studentSemester, double studentGpa,
+                                      long[] completed) {
+        // FACTOR 1: Major Alignment (0-4 points, 40% weight)
+        int department = catalog.getDepartmentId(row);
+        int majorScore = 0;
+        if (department != CourseFeatureTable.NO_DEPARTMENT && department == majorDepartment) {
+            majorScore = 4;  // Perfect match: in-major course
+        } else if (department != CourseFeatureTable.NO_DEPARTMENT &&
+                (catalog.getFieldMask(row) & majorFields) != 0) {
+            majorScore = 2;  // Partial match: related field
+        }
+
+        // FAcTOR 2: Prerequisite Readiness (0-3 points, 30% weight)
+        // Declared prerequisites decide outright; otherwise guess from semester vs course level
+        int prereqScore;
+        PrerequisiteGraph prerequisites = catalog.getPrerequisites();
+        if (prerequisites.hasPrerequisites(row)) {
+            prereqScore = prerequisites.isSatisfied(row, completed) ? 3 : 0;
+        } else {
+            prereqScore = calculatePrerequisiteScore(studentSemester, catalog.getLevel(row));
+        }
+
+        // FACTOR 3: GPA vs Difficulty Matching (0-2 points, 20% weight)
+        int difficultyScore = matchGpaToCourseDifficulty(studentGpa, catalog.getCredits(row));
 
-        return recommendations;
+        // FACTOR 4: Availability (0-1 point, 10% weight)
+        int availScore = catalog.isFull(row) ? 0 : 1;
+
+        return (majorScore << 12) | (prereqScore << 8) | (difficultyScore << 4) | availScore;
+    }
+
+    private static int totalOf(int breakdown) {
+        return ((breakdown >>> 12) & 0xF) + ((breakdown >>> 8) & 0xF)
+                + ((breakdown >>> 4) & 0xF) + (breakdown & 0xF);
     }
 
+    private static void siftUp(long[] heap, int i) {
+        long key = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= key) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = key;
+    }
 
-    private static int calculatePrerequisiteScore(int semester, int credits, String courseId) {
+    private static void siftDown(long[] heap, int size) {
+        if (size == 0) return;
+        long key = heap[0];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+            if (key <= heap[child]) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = key;
+    }
 
-        int courseLevel = extractCourseLevel(courseId);
+    private static int calculatePrerequisiteScore(int semester, int courseLevel) {
 
         int score = 0;
 
@@ -141,66 +332,4 @@ public class AIHelper {
             return credits <= 3 ? 2 : 0;
         }
     }
-
-    private static boolean isRelatedMajor(String major1, String major2) {
-        if (major1 == null || major2 == null) return false;
-
-        String m1 = major1.toLowerCase();
-        String m2 = major2.toLowerCase();
-
-        Set<String> stemFields = new HashSet<>(Arrays.asList(
-                "computer science", "mathematics", "physics", "engineering"
-        ));
-
-        if (stemFields.contains(m1) && stemFields.contains(m2)) {
-            return true;
-        }
-
-        Set<String> businessFields = new HashSet<>(Arrays.asList(
-                "business", "economics", "finance", "management"
-        ));
-
-        return businessFields.contains(m1) && businessFields.contains(m2);
-    }
-
-    private static int extractCourseLevel(String courseId) {
-        if (courseId == null || courseId.length() < 3) {
-            return 100;
-        }
-
-        String digits = courseId.replaceAll("[^0-9]", "");
-        try {
-            return Integer.parseInt(digits);
-        } catch (NumberFormatException e) {
-            return 100;
-        }
-    }
-
-
-    private static String formatScoreBreakdown(Map<String, Integer> breakdown) {
-        StringBuilder sb = new StringBuilder("[");
-        List<String> parts = new ArrayList<>();
-
-        parts.add("Major:" + breakdown.getOrDefault("Major Match", 0));
-        parts.add("Prereq:" + breakdown.getOrDefault("Prerequisites", 0));
-        parts.add("Difficulty:" + breakdown.getOrDefault("Difficulty Match", 0));
-        parts.add("Available:" + breakdown.getOrDefault("Available", 0));
-
-        sb.append(String.join(", ", parts));
-        sb.append("]");
-
-        return sb.toString();
-    }
-
-    private static class CourseRecommendation {
-        final Course course;
-        final int score;
-        final Map<String, Integer> breakdown;
-
-        CourseRecommendation(Course course, int score, Map<String, Integer> breakdown) {
-            this.course = course;
-            this.score = score;
-            this.breakdown = breakdown;
-        }
-    }
-}
\ No newline at end of file
+}
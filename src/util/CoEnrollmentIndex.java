@@ -0,0 +1,334 @@
+package util;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * "Students who took your courses also took ..." recommender.
+ *
+ * Students and courses are numbered by {@link IdRegistry}. Each student's courses are a sorted
+ * int array, and each course keeps a sparse row of co-enrollment counts (course -> number of
+ * students who took both) in a primitive open-addressing table. An enrollment only touches the
+ * rows of the student's other courses, so the index is maintained incrementally and never rebuilt.
+ *
+ * A query sums the rows of the student's courses, weighting each pair by cosine similarity
+ * (co-count / sqrt(size(a) * size(b))), and keeps the best candidates in a bounded heap.
+ * Queries share a read lock and run in parallel; updates take the write lock briefly.
+ */
+public class CoEnrollmentIndex {
+
+    private static final int[] NO_COURSES = new int[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Indexed by IdRegistry.COURSES number; null for courses nobody has taken yet
+    private int[] courseSizes = new int[16];          // students enrolled, per course
+    private CountRow[] coCounts = new CountRow[16];   // course -> (other course -> shared students)
+
+    // Indexed by IdRegistry.STUDENTS number; null for students with no recorded courses
+    private int[][] studentCourses = new int[16][];   // sorted course numbers
+    private int[] studentCourseCounts = new int[16];
+
+    // Per-thread scratch so a query allocates only its result
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Records that the student took the course; does nothing if already recorded, or if the
+     * student ID is not registered (students get their number when a StudentService stores them).
+     */
+    public void addEnrollment(String studentId, String courseId) {
+        int number = IdRegistry.STUDENTS.find(studentId);
+        if (number == IdRegistry.NO_NUMBER) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int student = studentSlot(number);
+            int course = courseSlot(IdRegistry.COURSES.register(courseId));
+            int[] courses = studentCourses[student];
+            int count = studentCourseCounts[student];
+            int pos = Arrays.binarySearch(courses, 0, count, course);
+            if (pos >= 0) {
+                return;
+            }
+
+            for (int i = 0; i < count; i++) {
+                coCounts[course].add(courses[i], 1);
+                coCounts[courses[i]].add(course, 1);
+            }
+            courseSizes[course]++;
+
+            int insertAt = -pos - 1;
+            if (count == courses.length) {
+                courses = Arrays.copyOf(courses, Math.max(4, count * 2));
+                studentCourses[student] = courses;
+            }
+            System.arraycopy(courses, insertAt, courses, insertAt + 1, count - insertAt);
+            courses[insertAt] = course;
+            studentCourseCounts[student] = count + 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Reverses {@link #addEnrollment}; does nothing if the enrollment is not recorded. */
+    public void removeEnrollment(String studentId, String courseId) {
+        lock.writeLock().lock();
+        try {
+            int student = IdRegistry.STUDENTS.find(studentId);
+            int course = IdRegistry.COURSES.find(courseId);
+            if (!hasStudent(student) || !hasCourse(course)) {
+                return;
+            }
+            int[] courses = studentCourses[student];
+            int count = studentCourseCounts[student];
+            int pos = Arrays.binarySearch(courses, 0, count, course);
+            if (pos < 0) {
+                return;
+            }
+
+            System.arraycopy(courses, pos + 1, courses, pos, count - pos - 1);
+            count--;
+            studentCourseCounts[student] = count;
+            courseSizes[course]--;
+            for (int i = 0; i < count; i++) {
+                coCounts[course].add(courses[i], -1);
+                coCounts[courses[i]].add(course, -1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} course IDs the student has not taken, most co-enrolled first
+     * (ties in the order the course IDs were first registered in {@link IdRegistry}). Empty for
+     * students with no enrollments.
+     */
+    public List<String> recommend(String studentId, int limit) {
+        if (studentId == null || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            int student = IdRegistry.STUDENTS.find(studentId);
+            if (!hasStudent(student)) {
+                return new ArrayList<>();
+            }
+            return rank(studentCourses[student], studentCourseCounts[student], limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** {@link #recommend(String, int)} for many students in parallel, keyed by student ID in the order given. */
+    public Map<String, List<String>> recommend(Collection<String> studentIds, int limit) {
+        List<String> ids = new ArrayList<>(studentIds);
+        List<List<String>> lists = IntStream.range(0, ids.size())
+                .parallel()
+                .mapToObj(i -> recommend(ids.get(i), limit))
+                .collect(Collectors.toList());
+
+        Map<String, List<String>> results = new LinkedHashMap<>();
+        for (int i = 0; i < lists.size(); i++) {
+            results.put(ids.get(i), lists.get(i));
+        }
+        return results;
+    }
+
+    /** Students who took both courses. */
+    public int getCoEnrollmentCount(String courseA, String courseB) {
+        lock.readLock().lock();
+        try {
+            int a = IdRegistry.COURSES.find(courseA);
+            int b = IdRegistry.COURSES.find(courseB);
+            return hasCourse(a) && hasCourse(b) ? coCounts[a].get(b) : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the read lock
+    private List<String> rank(int[] taken, int takenCount, int limit) {
+        Scratch s = scratch.get();
+        s.ensureCapacity(courseSizes.length);
+        double[] scores = s.scores;
+        int[] touched = s.touched;
+        int touchedCount = 0;
+
+        for (int i = 0; i < takenCount; i++) {
+            int course = taken[i];
+            double sizeA = courseSizes[course];
+            CountRow row = coCounts[course];
+            for (int slot = 0; slot < row.keys.length; slot++) {
+                int other = row.keys[slot];
+                int shared = row.values[slot];
+                if (other == CountRow.EMPTY || shared <= 0) {
+                    continue;
+                }
+                if (scores[other] == 0.0) {
+                    touched[touchedCount++] = other;
+                }
+                scores[other] += shared / Math.sqrt(sizeA * courseSizes[other]);
+            }
+        }
+
+        // Min-heap of (float score bits << 32 | MAX_VALUE - course): positive floats order like their bits
+        long[] heap = new long[Math.min(limit, Math.max(1, touchedCount))];
+        int size = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int course = touched[i];
+            double score = scores[course];
+            scores[course] = 0.0;  // reset scratch for the next query
+            if (Arrays.binarySearch(taken, 0, takenCount, course) >= 0) {
+                continue;
+            }
+            long key = ((long) Float.floatToIntBits((float) score) << 32) | (Integer.MAX_VALUE - course);
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(heap, size++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(heap, size);
+            }
+        }
+
+        String[] ranked = new String[size];
+        while (size > 0) {
+            int course = Integer.MAX_VALUE - (int) heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size);
+            ranked[size] = IdRegistry.COURSES.idOf(course);
+        }
+        return new ArrayList<>(Arrays.asList(ranked));
+    }
+
+    // Callers hold the write lock; the slot methods make room for the number and return it
+    private int studentSlot(int student) {
+        if (student >= studentCourses.length) {
+            int length = Math.max(student + 1, studentCourses.length * 2);
+            studentCourses = Arrays.copyOf(studentCourses, length);
+            studentCourseCounts = Arrays.copyOf(studentCourseCounts, length);
+        }
+        if (studentCourses[student] == null) {
+            studentCourses[student] = NO_COURSES;
+        }
+        return student;
+    }
+
+    private int courseSlot(int course) {
+        if (course >= coCounts.length) {
+            int length = Math.max(course + 1, coCounts.length * 2);
+            courseSizes = Arrays.copyOf(courseSizes, length);
+            coCounts = Arrays.copyOf(coCounts, length);
+        }
+        if (coCounts[course] == null) {
+            coCounts[course] = new CountRow();
+        }
+        return course;
+    }
+
+    private boolean hasStudent(int student) {
+        return student >= 0 && student < studentCourses.length && studentCourses[student] != null;
+    }
+
+    private boolean hasCourse(int course) {
+        return course >= 0 && course < coCounts.length && coCounts[course] != null;
+    }
+
+    private static void siftUp(long[] heap, int i) {
+        long key = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= key) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = key;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        if (size == 0) return;
+        long key = heap[0];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+            if (key <= heap[child]) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = key;
+    }
+
+    // int -> int counts, open addressing with linear probing; entries that drop to 0 stay as slots
+    private static class CountRow {
+        static final int EMPTY = -1;
+
+        int[] keys = newKeys(4);
+        int[] values = new int[4];
+        int size;
+
+        int get(int key) {
+            int index = find(key);
+            return keys[index] == key ? values[index] : 0;
+        }
+
+        void add(int key, int delta) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int index = find(key);
+            if (keys[index] == EMPTY) {
+                keys[index] = key;
+                size++;
+            }
+            values[index] += delta;
+        }
+
+        private int find(int key) {
+            int mask = keys.length - 1;
+            int index = (key * 0x9E3779B9) >>> 16 & mask;
+            while (keys[index] != EMPTY && keys[index] != key) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeys(oldKeys.length * 2);
+            values = new int[keys.length];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int index = find(oldKeys[i]);
+                    keys[index] = oldKeys[i];
+                    values[index] = oldValues[i];
+                }
+            }
+        }
+
+        private static int[] newKeys(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+    }
+
+    private static class Scratch {
+        double[] scores = new double[0];
+        int[] touched = new int[0];
+
+        void ensureCapacity(int courses) {
+            if (scores.length < courses) {
+                scores = new double[courses];
+                touched = new int[courses];
+            }
+        }
+    }
+}
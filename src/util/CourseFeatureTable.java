@@ -0,0 +1,183 @@
+package util;
+
+import entity.Course;
+import java.util.*;
+
+/**
+ * Immutable, column-per-feature view of a course catalog for the recommendation scorer.
+ * Everything that used to be re-derived per (student, course) pair - course level from the ID,
+ * department code, related-field group - is computed once here, so scoring a pair only
+ * reads ints. Build one with {@link #of}; CourseService keeps one current for its catalog.
+ * The table also carries the catalog's {@link PrerequisiteGraph}, numbered by table row.
+ */
+public class CourseFeatureTable {
+
+    /** Field-group bits: two majors are related when their masks intersect. */
+    public static final int STEM = 1;
+    public static final int BUSINESS = 1 << 1;
+
+    public static final int NO_DEPARTMENT = SymbolTable.NO_CODE;
+
+    private static final int DEFAULT_LEVEL = 100;
+
+    private static final Set<String> STEM_FIELDS = new HashSet<>(Arrays.asList(
+            "computer science", "mathematics", "physics", "engineering"
+    ));
+    private static final Set<String> BUSINESS_FIELDS = new HashSet<>(Arrays.asList(
+            "business", "economics", "finance", "management"
+    ));
+
+    private final long version;
+    private final Course[] courses;
+    private final int[] levels;
+    private final int[] credits;
+    private final int[] departmentIds;  // SymbolTable codes: equal ignoring case <=> equal code
+    private final int[] fieldMasks;
+    private final PrerequisiteGraph prerequisites;
+
+    // Course ID -> first row with it; further rows with the same ID are chained through nextSameId
+    private final Map<String, Integer> firstRowById;
+    private final int[] nextSameId;
+
+    private CourseFeatureTable(List<Course> catalog, long version,
+                               Map<String, ? extends Collection<String>> prerequisites) {
+        int n = catalog.size();
+        this.version = version;
+        this.courses = new Course[n];
+        this.levels = new int[n];
+        this.credits = new int[n];
+        this.departmentIds = new int[n];
+        this.fieldMasks = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            Course course = catalog.get(i);
+            int row = i;
+            course.read(() -> {
+                courses[row] = course;
+                levels[row] = extractCourseLevel(course.getCourseId());
+                credits[row] = course.getCredits();
+                departmentIds[row] = course.getDepartmentCode();
+                fieldMasks[row] = fieldMaskOf(course.getDepartment());
+                return null;
+            });
+        }
+
+        List<String> ids = new ArrayList<>(n);
+        this.firstRowById = new HashMap<>();
+        this.nextSameId = new int[n];
+        for (int row = n - 1; row >= 0; row--) {
+            Integer next = firstRowById.put(courses[row].getCourseId(), row);
+            nextSameId[row] = next == null ? -1 : next;
+        }
+        for (Course course : courses) {
+            ids.add(course.getCourseId());
+        }
+        this.prerequisites = PrerequisiteGraph.build(ids, prerequisites);
+    }
+
+    public static CourseFeatureTable of(List<Course> catalog) {
+        return of(catalog, 0, Collections.emptyMap());
+    }
+
+    /**
+     * @param version       caller-defined catalog version, handed back by {@link #getVersion()}
+     * @param prerequisites course ID -> directly required course IDs
+     * @throws IllegalArgumentException if the prerequisites contain a cycle
+     */
+    public static CourseFeatureTable of(List<Course> catalog, long version,
+                                        Map<String, ? extends Collection<String>> prerequisites) {
+        return new CourseFeatureTable(catalog, version, prerequisites);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /** Prerequisites of the catalog; course number == table row. */
+    public PrerequisiteGraph getPrerequisites() {
+        return prerequisites;
+    }
+
+    /** Bitset over table rows with the given courses set; IDs not in the table are ignored. */
+    public long[] toRowBitset(Collection<String> courseIds) {
+        long[] bits = new long[(courses.length + 63) >>> 6];
+        for (String courseId : courseIds) {
+            Integer first = firstRowById.get(courseId);
+            for (int row = first == null ? -1 : first; row >= 0; row = nextSameId[row]) {
+                bits[row >>> 6] |= 1L << row;
+            }
+        }
+        return bits;
+    }
+
+    public int size() {
+        return courses.length;
+    }
+
+    public Course getCourse(int row) {
+        return courses[row];
+    }
+
+    public String getCourseId(int row) {
+        return courses[row].getCourseId();
+    }
+
+    public int getLevel(int row) {
+        return levels[row];
+    }
+
+    public int getCredits(int row) {
+        return credits[row];
+    }
+
+    public int getDepartmentId(int row) {
+        return departmentIds[row];
+    }
+
+    public int getFieldMask(int row) {
+        return fieldMasks[row];
+    }
+
+    /** Live: reflects enrollments made after the table was built. */
+    public boolean isFull(int row) {
+        return courses[row].isFull();
+    }
+
+    /**
+     * ID of the department with this name (ignoring case, like {@link String#equalsIgnoreCase}),
+     * or {@link #NO_DEPARTMENT} if no course can belong to it.
+     */
+    public int departmentIdOf(String name) {
+        return SymbolTable.codeOf(name);
+    }
+
+    public static int fieldMaskOf(String major) {
+        if (major == null) return 0;
+
+        String m = major.toLowerCase();
+        if (STEM_FIELDS.contains(m)) return STEM;
+        if (BUSINESS_FIELDS.contains(m)) return BUSINESS;
+        return 0;
+    }
+
+    // Digits of the ID read as a number ("CS101" -> 101), DEFAULT_LEVEL if there are none
+    static int extractCourseLevel(String courseId) {
+        if (courseId == null || courseId.length() < 3) {
+            return DEFAULT_LEVEL;
+        }
+
+        long value = 0;
+        boolean anyDigit = false;
+        for (int i = 0; i < courseId.length(); i++) {
+            char c = courseId.charAt(i);
+            if (c >= '0' && c <= '9') {
+                anyDigit = true;
+                value = value * 10 + (c - '0');
+                if (value > Integer.MAX_VALUE) {
+                    return DEFAULT_LEVEL;  // would not fit in an int
+                }
+            }
+        }
+        return anyDigit ? (int) value : DEFAULT_LEVEL;
+    }
+}
@@ -0,0 +1,27 @@
+package util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Flight Recorder event for one seat request on a course. */
+@Name("solidedu.Enrollment")
+@Label("Enrollment Attempt")
+@Category({"SolidEdu", "Enrollment"})
+@Description("A Course.addStudent call and its outcome")
+public class EnrollmentEvent extends jdk.jfr.Event {
+
+    @Label("Course")
+    public String courseId;
+
+    @Label("Student")
+    public String studentId;
+
+    @Label("Accepted")
+    public boolean accepted;
+
+    @Label("Reason")
+    @Description("Why the request was rejected; empty when accepted")
+    public String reason;
+}
@@ -0,0 +1,77 @@
+package util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dense int numbers for string IDs, so memberships can be stored as int arrays instead of
+ * String collections. Numbers are handed out 0, 1, 2, ... on first use and never reused; an ID
+ * keeps its number for the life of the process even after the record is deleted.
+ *
+ * Thread-safe. Lookups in both directions are lock-free; registering a new ID takes a lock.
+ */
+public final class IdRegistry {
+
+    public static final IdRegistry STUDENTS = new IdRegistry();
+    public static final IdRegistry COURSES = new IdRegistry();
+
+    /** Returned by {@link #find} for IDs that were never registered. */
+    public static final int NO_NUMBER = -1;
+
+    private final ConcurrentHashMap<String, Integer> numbers = new ConcurrentHashMap<>();
+    private volatile String[] ids = new String[16];
+    private int count;  // guarded by this
+
+    private IdRegistry() {
+    }
+
+    /** The ID's number, assigning the next free one on first use. */
+    public int register(String id) {
+        Integer number = numbers.get(id);
+        if (number != null) {
+            return number;
+        }
+        synchronized (this) {
+            number = numbers.get(id);
+            if (number != null) {
+                return number;
+            }
+            int next = count++;
+            String[] current = ids;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, next * 2);
+            }
+            current[next] = id;
+            ids = current;              // publish the name before the number can be seen
+            numbers.put(id, next);
+            return next;
+        }
+    }
+
+    /** The ID's number, or {@link #NO_NUMBER}; never assigns one. */
+    public int find(String id) {
+        Integer number = id == null ? null : numbers.get(id);
+        return number == null ? NO_NUMBER : number;
+    }
+
+    public String idOf(int number) {
+        return ids[number];
+    }
+
+    /** Read-only list of the IDs behind the given numbers, in the same order. */
+    public List<String> idsOf(int[] numbers) {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return idOf(numbers[index]);
+            }
+
+            @Override
+            public int size() {
+                return numbers.length;
+            }
+        };
+    }
+}
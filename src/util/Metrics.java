@@ -0,0 +1,52 @@
+package util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Registry of per-operation metrics. Each operation is registered once, usually in a static
+ * field of the class that runs it, and published as an MXBean named
+ * {@code solidedu:type=Operation,name=<operation>} (browse them with JConsole or VisualVM).
+ *
+ * <pre>
+ * long start = System.nanoTime();
+ * try { ... } finally { SAVE_METRICS.recordSince(start); }
+ * </pre>
+ */
+public final class Metrics {
+
+    private static final String DOMAIN = "solidedu";
+
+    private static final Map<String, OperationMetrics> OPERATIONS = new ConcurrentSkipListMap<>();
+
+    private Metrics() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /** The metrics of the named operation, created and published on first use. */
+    public static OperationMetrics operation(String name) {
+        return OPERATIONS.computeIfAbsent(name, Metrics::publish);
+    }
+
+    /** Every registered operation, sorted by name. */
+    public static List<OperationMetrics> getOperations() {
+        return new ArrayList<>(OPERATIONS.values());
+    }
+
+    private static OperationMetrics publish(String name) {
+        OperationMetrics metrics = new OperationMetrics(name);
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics,
+                    new ObjectName(DOMAIN + ":type=Operation,name=" + ObjectName.quote(name)));
+        } catch (JMException e) {
+            // Still recorded and shown in the statistics screen, just not visible over JMX
+            System.err.println("Error publishing metrics for " + name + ": " + e.getMessage());
+        }
+        return metrics;
+    }
+}
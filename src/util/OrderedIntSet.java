@@ -0,0 +1,71 @@
+package util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Small thread-safe set of ints that keeps insertion order, stored as one array in that order.
+ * Membership is a linear scan, which for the handful of courses a student holds is as fast as
+ * a binary search. Like {@link SortedIntSet}, writers swap in a modified copy with a CAS and
+ * readers never block.
+ */
+public class OrderedIntSet {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final AtomicReference<int[]> values = new AtomicReference<>(EMPTY);
+
+    public boolean contains(int value) {
+        return indexOf(values.get(), value) >= 0;
+    }
+
+    /** @return false if the value was already present */
+    public boolean add(int value) {
+        while (true) {
+            int[] current = values.get();
+            if (indexOf(current, value) >= 0) {
+                return false;
+            }
+            int[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = value;
+            if (values.compareAndSet(current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    /** @return false if the value was not present */
+    public boolean remove(int value) {
+        while (true) {
+            int[] current = values.get();
+            int pos = indexOf(current, value);
+            if (pos < 0) {
+                return false;
+            }
+            int[] updated = current.length == 1 ? EMPTY : new int[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, pos);
+            System.arraycopy(current, pos + 1, updated, pos, current.length - pos - 1);
+            if (values.compareAndSet(current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    public int size() {
+        return values.get().length;
+    }
+
+    /** Copy of the current contents, in insertion order. */
+    public int[] toArray() {
+        return values.get().clone();
+    }
+
+    private static int indexOf(int[] array, int value) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,38 @@
+package util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one full load or save of a service's data files. Like every JFR
+ * event it carries its thread, start time, duration and stack trace, so a slow save lines up
+ * with the GC pauses and file I/O events of the same recording.
+ */
+@Name("solidedu.Persistence")
+@Label("Data File Load/Save")
+@Category({"SolidEdu", "Persistence"})
+@Description("A service loading or rewriting its data files")
+public class PersistenceEvent extends jdk.jfr.Event {
+
+    @Label("Store")
+    @Description("students or courses")
+    public String store;
+
+    @Label("Operation")
+    @Description("load or save")
+    public String operation;
+
+    @Label("Format")
+    public String format;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Bytes")
+    @Description("Size of the data files after the operation")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,201 @@
+package util;
+
+import java.util.*;
+
+/**
+ * Immutable course prerequisite DAG with its transitive closure precomputed.
+ *
+ * Courses are numbered in the order given to {@link #build}. For every course the set of all
+ * courses it transitively depends on is stored as a bitset, trimmed to the word range that
+ * actually has bits set, so "has the student completed everything X needs" is a handful of
+ * word-level AND-NOTs against the student's completed-course bitset (see {@link #toBitset}).
+ */
+public class PrerequisiteGraph {
+
+    private static final long[] NO_WORDS = new long[0];
+
+    private final Map<String, Integer> indexById;
+    private final String[] courseIds;
+    private final int words;
+
+    // Transitive prerequisites of each course: closure[c] covers words firstWord[c] .. firstWord[c] + length - 1
+    private final long[][] closure;
+    private final int[] firstWord;
+    private final String[][] direct;  // as declared, for messages
+
+    private PrerequisiteGraph(String[] courseIds, Map<String, Integer> indexById, long[][] closure,
+                              int[] firstWord, String[][] direct) {
+        this.courseIds = courseIds;
+        this.indexById = indexById;
+        this.words = (courseIds.length + 63) >>> 6;
+        this.closure = closure;
+        this.firstWord = firstWord;
+        this.direct = direct;
+    }
+
+    public static PrerequisiteGraph empty(List<String> courseIds) {
+        return build(courseIds, Collections.emptyMap());
+    }
+
+    /**
+     * @param courseIds     the catalog; its order defines the course numbering
+     * @param prerequisites course ID -> IDs of the courses it directly requires; entries naming
+     *                      courses outside the catalog are ignored
+     * @throws IllegalArgumentException if the prerequisites contain a cycle
+     */
+    public static PrerequisiteGraph build(List<String> courseIds,
+                                          Map<String, ? extends Collection<String>> prerequisites) {
+        int n = courseIds.size();
+        String[] ids = courseIds.toArray(new String[0]);
+        Map<String, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            indexById.put(ids[i], i);
+        }
+
+        // Dense adjacency: course -> direct prerequisites, plus the reverse for Kahn's algorithm
+        int[][] requires = new int[n][];
+        String[][] direct = new String[n][];
+        List<List<Integer>> requiredBy = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            requiredBy.add(new ArrayList<>());
+        }
+        int[] pending = new int[n];
+        for (int i = 0; i < n; i++) {
+            Collection<String> declared = prerequisites.get(ids[i]);
+            if (declared == null || declared.isEmpty()) {
+                requires[i] = new int[0];
+                direct[i] = new String[0];
+                continue;
+            }
+            Set<Integer> unique = new LinkedHashSet<>();
+            for (String prerequisite : declared) {
+                Integer p = indexById.get(prerequisite);
+                if (p != null) {
+                    unique.add(p);
+                }
+            }
+            requires[i] = new int[unique.size()];
+            direct[i] = new String[unique.size()];
+            int k = 0;
+            for (int p : unique) {
+                requires[i][k] = p;
+                direct[i][k] = ids[p];
+                k++;
+                requiredBy.get(p).add(i);
+            }
+            pending[i] = requires[i].length;
+        }
+
+        // Topological order: a course is closed once all of its prerequisites are
+        int[] order = new int[n];
+        int head = 0, tail = 0;
+        for (int i = 0; i < n; i++) {
+            if (pending[i] == 0) order[tail++] = i;
+        }
+        int words = (n + 63) >>> 6;
+        long[][] full = new long[n][];
+        while (head < tail) {
+            int c = order[head++];
+            long[] bits = new long[words];
+            for (int p : requires[c]) {
+                bits[p >>> 6] |= 1L << p;
+                long[] inherited = full[p];
+                for (int w = 0; w < words; w++) {
+                    bits[w] |= inherited[w];
+                }
+            }
+            full[c] = bits;
+            for (int dependent : requiredBy.get(c)) {
+                if (--pending[dependent] == 0) {
+                    order[tail++] = dependent;
+                }
+            }
+        }
+        if (tail < n) {
+            List<String> cyclic = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                if (pending[i] > 0) cyclic.add(ids[i]);
+            }
+            throw new IllegalArgumentException("Prerequisite cycle among " + cyclic);
+        }
+
+        // Keep only the non-zero word range of each closure
+        long[][] closure = new long[n][];
+        int[] firstWord = new int[n];
+        for (int c = 0; c < n; c++) {
+            long[] bits = full[c];
+            int first = 0;
+            while (first < words && bits[first] == 0) first++;
+            int last = words - 1;
+            while (last >= first && bits[last] == 0) last--;
+            firstWord[c] = first;
+            closure[c] = first > last ? NO_WORDS : Arrays.copyOfRange(bits, first, last + 1);
+        }
+        return new PrerequisiteGraph(ids, indexById, closure, firstWord, direct);
+    }
+
+    public int size() {
+        return courseIds.length;
+    }
+
+    /** Number of the course, or -1 if it is not in the catalog. */
+    public int indexOf(String courseId) {
+        Integer index = courseId == null ? null : indexById.get(courseId);
+        return index == null ? -1 : index;
+    }
+
+    public boolean hasPrerequisites(int course) {
+        return closure[course].length > 0;
+    }
+
+    /** Direct prerequisites as declared (IDs outside the catalog dropped). */
+    public List<String> getPrerequisites(String courseId) {
+        int course = indexOf(courseId);
+        return course < 0 ? Collections.emptyList() : Arrays.asList(direct[course].clone());
+    }
+
+    /** Bitset over course numbers; build it once per student and reuse it for every check. */
+    public long[] toBitset(Collection<String> courseIdsTaken) {
+        long[] bits = new long[words];
+        for (String courseId : courseIdsTaken) {
+            int course = indexOf(courseId);
+            if (course >= 0) {
+                bits[course >>> 6] |= 1L << course;
+            }
+        }
+        return bits;
+    }
+
+    /** True if every transitive prerequisite of the course is set in {@code completed}. */
+    public boolean isSatisfied(int course, long[] completed) {
+        long[] required = closure[course];
+        int offset = firstWord[course];
+        for (int w = 0; w < required.length; w++) {
+            if ((required[w] & ~completed[offset + w]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Transitive prerequisites of the course that are not in {@code completed}, in catalog order. */
+    public List<String> getMissingPrerequisites(String courseId, Collection<String> completed) {
+        List<String> missing = new ArrayList<>();
+        int course = indexOf(courseId);
+        if (course < 0) {
+            return missing;
+        }
+        long[] done = toBitset(completed);
+        long[] required = closure[course];
+        int offset = firstWord[course];
+        for (int w = 0; w < required.length; w++) {
+            long open = required[w] & ~done[offset + w];
+            while (open != 0) {
+                int bit = Long.numberOfTrailingZeros(open);
+                missing.add(courseIds[((offset + w) << 6) + bit]);
+                open &= open - 1;
+            }
+        }
+        return missing;
+    }
+}
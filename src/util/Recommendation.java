@@ -0,0 +1,88 @@
+package util;
+
+import entity.Course;
+import java.util.Objects;
+
+/**
+ * One scored course for one student, as produced by {@link AIHelper#recommend}.
+ * The total is the sum of the four factor scores (0-10 points).
+ */
+public class Recommendation {
+
+    private final Course course;
+    private final int majorScore;        // 0-4
+    private final int prerequisiteScore; // 0-3
+    private final int difficultyScore;   // 0-2
+    private final int availabilityScore; // 0-1
+
+    public Recommendation(Course course, int majorScore, int prerequisiteScore,
+                          int difficultyScore, int availabilityScore) {
+        this.course = course;
+        this.majorScore = majorScore;
+        this.prerequisiteScore = prerequisiteScore;
+        this.difficultyScore = difficultyScore;
+        this.availabilityScore = availabilityScore;
+    }
+
+    public Course getCourse() {
+        return course;
+    }
+
+    public String getCourseId() {
+        return course.getCourseId();
+    }
+
+    public int getScore() {
+        return majorScore + prerequisiteScore + difficultyScore + availabilityScore;
+    }
+
+    public int getMajorScore() {
+        return majorScore;
+    }
+
+    public int getPrerequisiteScore() {
+        return prerequisiteScore;
+    }
+
+    public int getDifficultyScore() {
+        return difficultyScore;
+    }
+
+    public int getAvailabilityScore() {
+        return availabilityScore;
+    }
+
+    /** Display form used by {@link AIHelper#recommendCourses}. */
+    public String format() {
+        return String.format(
+                "%s - %s (Match Score: %d/10) [Major:%d, Prereq:%d, Difficulty:%d, Available:%d]",
+                course.getCourseId(),
+                course.getCourseName(),
+                getScore(),
+                majorScore, prerequisiteScore, difficultyScore, availabilityScore
+        );
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Recommendation)) return false;
+        Recommendation other = (Recommendation) o;
+        return course == other.course
+                && majorScore == other.majorScore
+                && prerequisiteScore == other.prerequisiteScore
+                && difficultyScore == other.difficultyScore
+                && availabilityScore == other.availabilityScore;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(course), majorScore, prerequisiteScore,
+                difficultyScore, availabilityScore);
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
@@ -0,0 +1,220 @@
+package util;
+
+import entity.Course;
+import entity.Student;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache in front of {@link AIHelper#recommend(Student, CourseFeatureTable, int)}.
+ *
+ * Entries are keyed by everything a recommendation depends on: the student's major, GPA,
+ * semester, enrolled and completed courses, the requested limit, and the catalog version of the feature
+ * table. So a student whose profile changes (updateStudent, enroll, drop) simply misses, and
+ * students with identical profiles share one entry. Any course edit moves CourseService's
+ * catalog version, which drops every entry at once. Use tables from
+ * {@code CourseService.getFeatureTable()}; tables built with {@link CourseFeatureTable#of(List)}
+ * carry no version and are never told apart.
+ *
+ * A course filling up or freeing a seat does not change the catalog version. Register
+ * {@link #courseAvailabilityChanged} with {@code CourseService.addAvailabilityListener}: it drops
+ * only the entries that recommend the course, or that it would enter with its seat point back.
+ *
+ * Thread-safe. Recommendations are computed outside the lock, so concurrent misses on the
+ * same profile may both compute; the results are equal.
+ */
+public class RecommendationCache {
+
+    private final int maxEntries;
+    private final Map<Key, Entry> entries;
+    private final Map<String, Set<Key>> dependents = new HashMap<>();  // course ID -> entries it can change
+    private long catalogVersion = Long.MIN_VALUE;  // guarded by this
+    private long availabilityChanges;              // guarded by this
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RecommendationCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache must hold at least one entry");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > RecommendationCache.this.maxEntries) {
+                    evictions.increment();
+                    unlink(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** Cached {@code AIHelper.recommend(student, catalog, limit)}; the returned list is read-only. */
+    public List<Recommendation> get(Student student, CourseFeatureTable catalog, int limit) {
+        if (student == null || catalog == null) {
+            return Collections.emptyList();
+        }
+
+        Key key = new Key(student, limit, catalog.getVersion());
+        long seenAvailabilityChanges;
+        synchronized (this) {
+            if (catalogVersion != key.catalogVersion) {
+                invalidateAll();  // every cached result may now rank courses differently
+                catalogVersion = key.catalogVersion;
+            }
+            Entry cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached.recommendations;
+            }
+            seenAvailabilityChanges = availabilityChanges;
+        }
+
+        misses.increment();
+        List<String> nearMisses = new ArrayList<>();
+        List<Recommendation> computed =
+                Collections.unmodifiableList(AIHelper.recommend(student, catalog, limit, nearMisses));
+        synchronized (this) {
+            // A seat change during the computation may or may not be reflected in it: do not keep it
+            if (catalogVersion == key.catalogVersion && availabilityChanges == seenAvailabilityChanges) {
+                Entry entry = new Entry(computed, nearMisses);
+                Entry replaced = entries.put(key, entry);
+                if (replaced != null) {
+                    unlink(key, replaced);
+                }
+                for (String courseId : entry.dependsOn) {
+                    dependents.computeIfAbsent(courseId, id -> new HashSet<>()).add(key);
+                }
+            }
+        }
+        return computed;
+    }
+
+    /**
+     * Drops the entries whose result the course filling up or freeing a seat can change: those
+     * recommending it, and those it would have entered with the availability point.
+     */
+    public synchronized void courseAvailabilityChanged(Course course) {
+        availabilityChanges++;
+        Set<Key> keys = dependents.remove(course.getCourseId());
+        if (keys == null) {
+            return;
+        }
+        for (Key key : keys) {
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                unlink(key, entry);
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        dependents.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /** Hits / (hits + misses), or 0 before the first lookup. */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    // Caller holds the lock
+    private void unlink(Key key, Entry entry) {
+        for (String courseId : entry.dependsOn) {
+            Set<Key> keys = dependents.get(courseId);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                dependents.remove(courseId);
+            }
+        }
+    }
+
+    private static class Entry {
+        final List<Recommendation> recommendations;
+        final Set<String> dependsOn;  // recommended courses plus full near misses
+
+        Entry(List<Recommendation> recommendations, List<String> nearMisses) {
+            this.recommendations = recommendations;
+            this.dependsOn = new HashSet<>(nearMisses);
+            for (Recommendation recommendation : recommendations) {
+                dependsOn.add(recommendation.getCourse().getCourseId());
+            }
+        }
+    }
+
+    // Snapshot of the inputs that decide a student's recommendations
+    private static class Key {
+        final String major;
+        final double gpa;
+        final int semester;
+        final String[] enrolledCourses;  // sorted: order does not affect scoring
+        final String[] completedCourses; // sorted
+        final int limit;
+        final long catalogVersion;
+        final int hash;
+
+        Key(Student student, int limit, long catalogVersion) {
+            String[] profileMajor = new String[1];
+            double[] profileGpa = new double[1];
+            int[] profileSemester = new int[1];
+            student.read(() -> {
+                profileMajor[0] = student.getMajor();
+                profileGpa[0] = student.getGpa();
+                profileSemester[0] = student.getSemester();
+                return null;
+            });
+            this.major = profileMajor[0];
+            this.gpa = profileGpa[0];
+            this.semester = profileSemester[0];
+            this.enrolledCourses = student.getEnrolledCourses().toArray(new String[0]);
+            Arrays.sort(this.enrolledCourses);
+            this.completedCourses = student.getCompletedCourses().toArray(new String[0]);
+            Arrays.sort(this.completedCourses);
+            this.limit = limit;
+            this.catalogVersion = catalogVersion;
+            this.hash = Objects.hash(major, gpa, semester, Arrays.hashCode(enrolledCourses),
+                    Arrays.hashCode(completedCourses), limit, catalogVersion);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return hash == other.hash
+                    && Double.compare(gpa, other.gpa) == 0
+                    && semester == other.semester
+                    && limit == other.limit
+                    && catalogVersion == other.catalogVersion
+                    && Objects.equals(major, other.major)
+                    && Arrays.equals(enrolledCourses, other.enrolledCourses)
+                    && Arrays.equals(completedCourses, other.completedCourses);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Flight Recorder event for one recommendation run, for a single student or a batch. */
+@Name("solidedu.Recommendation")
+@Label("Course Recommendation")
+@Category({"SolidEdu", "Recommendation"})
+@Description("Scoring a course catalog for one or more students")
+public class RecommendationEvent extends jdk.jfr.Event {
+
+    @Label("Students")
+    public int students;
+
+    @Label("Courses")
+    @Description("Size of the catalog that was scored")
+    public int courses;
+
+    @Label("Limit")
+    public int limit;
+}
@@ -0,0 +1,27 @@
+package util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Flight Recorder event for one {@link SearchIndex} query. */
+@Name("solidedu.Search")
+@Label("Search")
+@Category({"SolidEdu", "Search"})
+@Description("A substring search over students or courses")
+public class SearchEvent extends jdk.jfr.Event {
+
+    @Label("Index")
+    public String index;
+
+    @Label("Query Length")
+    public int queryLength;
+
+    @Label("Candidates")
+    @Description("Documents verified against the query: the shortest posting lists, or every document for queries under 3 characters")
+    public long candidates;
+
+    @Label("Matches")
+    public int matches;
+}
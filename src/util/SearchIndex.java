@@ -0,0 +1,415 @@
+package util;
+
+import inter_face.Searchable;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Trigram inverted index over {@link Searchable#getSearchableFields()}.
+ * Answers the same case-insensitive substring queries as {@link Searchable#matchesSearch(String)}:
+ * queries of 3+ characters read only the shortest posting list among their trigrams and verify
+ * those candidates; shorter queries scan the cached lower-case text instead of re-lowering fields.
+ * Results come back in insertion order, like a scan over the backing list would.
+ *
+ * Documents live in dense slots and posting lists are plain int arrays keyed by a packed
+ * trigram in an open-addressing table, so indexing a large roster does not box anything.
+ * Removals leave stale entries behind (candidates are verified against the current text anyway);
+ * the postings are rebuilt once stale entries outnumber live ones.
+ *
+ * Thread-safe: documents are spread over lock-striped shards by key, so writers to different
+ * shards never contend and a search only waits for a writer holding the shard it is reading.
+ */
+public class SearchIndex<T extends Searchable> {
+
+    private static final char FIELD_SEPARATOR = '\0';  // keeps trigrams and matches inside one field
+    private static final long EMPTY = 0L;              // never a real trigram: separators are skipped
+    private static final int MIN_COMPACT_ENTRIES = 1024;
+    private static final int SHARDS = 16;              // power of two
+
+    private final String name;
+    private final Function<T, String> keyExtractor;
+    private final Shard[] shards = new Shard[SHARDS];
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public SearchIndex(Function<T, String> keyExtractor) {
+        this("search", keyExtractor);
+    }
+
+    /** @param name what the index holds ("students", "courses"), reported in {@link SearchEvent}s */
+    public SearchIndex(String name, Function<T, String> keyExtractor) {
+        this.name = name;
+        this.keyExtractor = keyExtractor;
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    /** Adds the item, or re-indexes it if its key is already present. */
+    public void put(T item) {
+        String key = keyExtractor.apply(item);
+        String text = buildText(item);  // outside the lock: may read the entity consistently
+        Shard shard = shardFor(key);
+        shard.lock.writeLock().lock();
+        try {
+            shard.put(key, item, text, nextSequence);
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        Shard shard = shardFor(key);
+        shard.lock.writeLock().lock();
+        try {
+            shard.remove(key);
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        for (Shard shard : shards) {
+            shard.lock.writeLock().lock();
+            try {
+                shard.clear();
+            } finally {
+                shard.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public List<T> search(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        String lowerQuery = query.toLowerCase();
+
+        List<Match> matches = new ArrayList<>();
+        long candidates = 0;
+        for (Shard shard : shards) {
+            shard.lock.readLock().lock();
+            try {
+                candidates += shard.search(lowerQuery, matches);
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+        }
+
+        matches.sort(Comparator.comparingLong(m -> m.sequence));
+        List<T> results = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            @SuppressWarnings("unchecked")
+            T item = (T) match.item;
+            results.add(item);
+        }
+
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.index = name;
+            event.queryLength = query.length();
+            event.candidates = candidates;
+            event.matches = results.size();
+            event.commit();
+        }
+        return results;
+    }
+
+    private Shard shardFor(String key) {
+        int h = key.hashCode();
+        return shards[(h ^ (h >>> 16)) & (SHARDS - 1)];
+    }
+
+    private static class Match {
+        final long sequence;
+        final Object item;
+
+        Match(long sequence, Object item) {
+            this.sequence = sequence;
+            this.item = item;
+        }
+    }
+
+    // Single-threaded index over part of the documents; callers hold its lock
+    private static class Shard {
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final Map<String, Integer> slotByKey = new HashMap<>();
+
+        // Document slots, in insertion order within the shard
+        private Object[] items = new Object[16];
+        private String[] texts = new String[16];
+        private String[] keys = new String[16];
+        private long[] sequences = new long[16];
+        private int slotCount;
+
+        // Open-addressing trigram table -> posting list
+        private long[] gramKeys = new long[64];
+        private int[][] postings = new int[64][];
+        private int[] postingSizes = new int[64];
+        private int gramCount;
+
+        private long liveEntries;
+        private long staleEntries;
+
+        void put(String key, Object item, String text, AtomicLong nextSequence) {
+            Integer existing = slotByKey.get(key);
+            if (existing == null) {
+                int slot = newSlot(key, item, text, nextSequence.getAndIncrement());
+                slotByKey.put(key, slot);
+                for (long gram : trigrams(text)) {
+                    addPosting(gram, slot);
+                }
+                return;
+            }
+
+            int slot = existing;
+            String oldText = texts[slot];
+            items[slot] = item;
+            if (oldText.equals(text)) {
+                return;
+            }
+            texts[slot] = text;
+
+            // Walk both sorted gram sets: post only new grams, count dropped ones as stale
+            long[] oldGrams = trigrams(oldText);
+            long[] newGrams = trigrams(text);
+            int i = 0, j = 0;
+            while (i < oldGrams.length || j < newGrams.length) {
+                if (j == newGrams.length || (i < oldGrams.length && oldGrams[i] < newGrams[j])) {
+                    markStale(1);
+                    i++;
+                } else if (i == oldGrams.length || newGrams[j] < oldGrams[i]) {
+                    addPosting(newGrams[j], slot);
+                    j++;
+                } else {
+                    i++;
+                    j++;
+                }
+            }
+            compactIfNeeded();
+        }
+
+        void remove(String key) {
+            Integer slot = slotByKey.remove(key);
+            if (slot == null) {
+                return;
+            }
+            markStale(trigrams(texts[slot]).length);
+            items[slot] = null;
+            texts[slot] = null;
+            keys[slot] = null;
+            compactIfNeeded();
+        }
+
+        void clear() {
+            slotByKey.clear();
+            items = new Object[16];
+            texts = new String[16];
+            keys = new String[16];
+            sequences = new long[16];
+            slotCount = 0;
+            resetPostings(64);
+        }
+
+        // Returns the number of candidate documents it had to verify
+        int search(String lowerQuery, List<Match> out) {
+            if (lowerQuery.length() < 3) {
+                for (int slot = 0; slot < slotCount; slot++) {
+                    if (texts[slot] != null && texts[slot].contains(lowerQuery)) {
+                        out.add(new Match(sequences[slot], items[slot]));
+                    }
+                }
+                return slotCount;
+            }
+
+            int smallest = -1;
+            for (int i = 0; i + 3 <= lowerQuery.length(); i++) {
+                int index = findGram(gram(lowerQuery, i));
+                if (index < 0) {
+                    return 0;  // some trigram occurs nowhere in this shard, so nothing here can match
+                }
+                if (smallest < 0 || postingSizes[index] < postingSizes[smallest]) {
+                    smallest = index;
+                }
+            }
+
+            int[] candidates = postings[smallest];
+            int[] matches = new int[Math.min(postingSizes[smallest], 64)];
+            int matchCount = 0;
+            for (int i = 0; i < postingSizes[smallest]; i++) {
+                int slot = candidates[i];
+                if (texts[slot] != null && texts[slot].contains(lowerQuery)) {
+                    if (matchCount == matches.length) {
+                        matches = Arrays.copyOf(matches, matchCount * 2);
+                    }
+                    matches[matchCount++] = slot;
+                }
+            }
+
+            // Postings appended by updates may repeat a slot
+            Arrays.sort(matches, 0, matchCount);
+            for (int i = 0; i < matchCount; i++) {
+                if (i == 0 || matches[i] != matches[i - 1]) {
+                    out.add(new Match(sequences[matches[i]], items[matches[i]]));
+                }
+            }
+            return postingSizes[smallest];
+        }
+
+        private int newSlot(String key, Object item, String text, long sequence) {
+            if (slotCount == items.length) {
+                items = Arrays.copyOf(items, slotCount * 2);
+                texts = Arrays.copyOf(texts, slotCount * 2);
+                keys = Arrays.copyOf(keys, slotCount * 2);
+                sequences = Arrays.copyOf(sequences, slotCount * 2);
+            }
+            items[slotCount] = item;
+            texts[slotCount] = text;
+            keys[slotCount] = key;
+            sequences[slotCount] = sequence;
+            return slotCount++;
+        }
+
+        private void markStale(long entries) {
+            staleEntries += entries;
+            liveEntries -= entries;
+        }
+
+        // Rebuilds postings and slots from the live documents once most entries are garbage
+        private void compactIfNeeded() {
+            if (staleEntries < MIN_COMPACT_ENTRIES || staleEntries < liveEntries) {
+                return;
+            }
+            Object[] oldItems = items;
+            String[] oldTexts = texts;
+            String[] oldKeys = keys;
+            long[] oldSequences = sequences;
+            int oldCount = slotCount;
+
+            int capacity = Math.max(16, slotByKey.size() * 2);
+            items = new Object[capacity];
+            texts = new String[capacity];
+            keys = new String[capacity];
+            sequences = new long[capacity];
+            slotCount = 0;
+            resetPostings(Math.max(64, Integer.highestOneBit(Math.max(1, gramCount)) * 4));
+            slotByKey.clear();
+
+            for (int old = 0; old < oldCount; old++) {
+                if (oldTexts[old] == null) continue;
+                int slot = newSlot(oldKeys[old], oldItems[old], oldTexts[old], oldSequences[old]);
+                slotByKey.put(oldKeys[old], slot);
+                for (long gram : trigrams(oldTexts[old])) {
+                    addPosting(gram, slot);
+                }
+            }
+        }
+
+        private void resetPostings(int capacity) {
+            gramKeys = new long[capacity];
+            postings = new int[capacity][];
+            postingSizes = new int[capacity];
+            gramCount = 0;
+            liveEntries = 0;
+            staleEntries = 0;
+        }
+
+        private void addPosting(long gram, int slot) {
+            if ((gramCount + 1) * 2 > gramKeys.length) {
+                growGramTable();
+            }
+            int index = probe(gramKeys, gram);
+            if (gramKeys[index] == EMPTY) {
+                gramKeys[index] = gram;
+                postings[index] = new int[4];
+                gramCount++;
+            }
+            int size = postingSizes[index];
+            if (size == postings[index].length) {
+                postings[index] = Arrays.copyOf(postings[index], size * 2);
+            }
+            postings[index][size] = slot;
+            postingSizes[index] = size + 1;
+            liveEntries++;
+        }
+
+        private int findGram(long gram) {
+            int index = probe(gramKeys, gram);
+            return gramKeys[index] == EMPTY ? -1 : index;
+        }
+
+        private void growGramTable() {
+            long[] oldKeys = gramKeys;
+            int[][] oldPostings = postings;
+            int[] oldSizes = postingSizes;
+
+            gramKeys = new long[oldKeys.length * 2];
+            postings = new int[gramKeys.length][];
+            postingSizes = new int[gramKeys.length];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int index = probe(gramKeys, oldKeys[i]);
+                    gramKeys[index] = oldKeys[i];
+                    postings[index] = oldPostings[i];
+                    postingSizes[index] = oldSizes[i];
+                }
+            }
+        }
+    }
+
+    // Linear probing; table length is a power of two and never more than half full
+    private static int probe(long[] keys, long gram) {
+        int mask = keys.length - 1;
+        int index = (int) (mix(gram) & mask);
+        while (keys[index] != EMPTY && keys[index] != gram) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private static long mix(long value) {
+        value *= 0x9E3779B97F4A7C15L;
+        return value ^ (value >>> 32);
+    }
+
+    private static String buildText(Searchable item) {
+        StringBuilder sb = new StringBuilder();
+        for (String field : item.getSearchableFields()) {
+            if (field != null) {
+                sb.append(field.toLowerCase()).append(FIELD_SEPARATOR);
+            }
+        }
+        return sb.toString();
+    }
+
+    // Sorted, de-duplicated trigrams of the text
+    private static long[] trigrams(String text) {
+        long[] grams = new long[Math.max(0, text.length() - 2)];
+        int count = 0;
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            if (text.charAt(i) != FIELD_SEPARATOR && text.charAt(i + 1) != FIELD_SEPARATOR
+                    && text.charAt(i + 2) != FIELD_SEPARATOR) {
+                grams[count++] = gram(text, i);
+            }
+        }
+        Arrays.sort(grams, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || grams[i] != grams[unique - 1]) {
+                grams[unique++] = grams[i];
+            }
+        }
+        return unique == grams.length ? grams : Arrays.copyOf(grams, unique);
+    }
+
+    // Three UTF-16 chars packed into one long
+    private static long gram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+}
@@ -0,0 +1,65 @@
+package util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Small thread-safe set of ints kept as one sorted array: membership is a binary search and
+ * costs 4 bytes per element. Writers swap in a modified copy with a CAS and readers never
+ * block, which suits memberships that are read far more often than they change.
+ */
+public class SortedIntSet {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final AtomicReference<int[]> values = new AtomicReference<>(EMPTY);
+
+    public boolean contains(int value) {
+        return Arrays.binarySearch(values.get(), value) >= 0;
+    }
+
+    /** @return false if the value was already present */
+    public boolean add(int value) {
+        while (true) {
+            int[] current = values.get();
+            int pos = Arrays.binarySearch(current, value);
+            if (pos >= 0) {
+                return false;
+            }
+            int insertAt = -pos - 1;
+            int[] updated = new int[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, insertAt);
+            updated[insertAt] = value;
+            System.arraycopy(current, insertAt, updated, insertAt + 1, current.length - insertAt);
+            if (values.compareAndSet(current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    /** @return false if the value was not present */
+    public boolean remove(int value) {
+        while (true) {
+            int[] current = values.get();
+            int pos = Arrays.binarySearch(current, value);
+            if (pos < 0) {
+                return false;
+            }
+            int[] updated = current.length == 1 ? EMPTY : new int[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, pos);
+            System.arraycopy(current, pos + 1, updated, pos, current.length - pos - 1);
+            if (values.compareAndSet(current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    public int size() {
+        return values.get().length;
+    }
+
+    /** Sorted copy of the current contents. */
+    public int[] toArray() {
+        return values.get().clone();
+    }
+}
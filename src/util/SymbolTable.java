@@ -0,0 +1,102 @@
+package util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide dictionary for low-cardinality text fields (majors, departments, instructors,
+ * advisors, research areas).
+ *
+ * Every distinct value is stored once as a {@link Symbol}; entities keep the shared symbol
+ * instead of their own String, so a million students in five majors hold five Strings. Each
+ * symbol also carries a case-insensitive code: two values have the same code exactly when
+ * {@link String#equalsIgnoreCase} says they are equal, so filters compare ints.
+ *
+ * Entries are never removed, so do not put free text (names, thesis titles) in here.
+ */
+public final class SymbolTable {
+
+    /** Code of null and of values that were never interned. */
+    public static final int NO_CODE = -1;
+
+    private static final ConcurrentHashMap<String, Symbol> SYMBOLS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Integer> CODES = new ConcurrentHashMap<>();  // folded -> code
+    private static final AtomicInteger NEXT_CODE = new AtomicInteger();
+
+    private SymbolTable() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /** The shared symbol for this value, created on first use; null for null. */
+    public static Symbol of(String value) {
+        if (value == null) {
+            return null;
+        }
+        Symbol symbol = SYMBOLS.get(value);
+        if (symbol != null) {
+            return symbol;
+        }
+        return SYMBOLS.computeIfAbsent(value, v -> new Symbol(v,
+                CODES.computeIfAbsent(foldCase(v), key -> NEXT_CODE.getAndIncrement())));
+    }
+
+    /** Canonical instance of the value; null for null. */
+    public static String intern(String value) {
+        Symbol symbol = of(value);
+        return symbol == null ? null : symbol.getValue();
+    }
+
+    /**
+     * Case-insensitive code of the value without adding it, or {@link #NO_CODE} if no equal
+     * value (ignoring case) has been interned - in which case no entity can hold it either.
+     */
+    public static int codeOf(String value) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        Symbol symbol = SYMBOLS.get(value);
+        if (symbol != null) {
+            return symbol.getCode();
+        }
+        Integer code = CODES.get(foldCase(value));
+        return code == null ? NO_CODE : code;
+    }
+
+    /** Number of distinct values interned so far. */
+    public static int size() {
+        return SYMBOLS.size();
+    }
+
+    // Per-char folding with the same rule equalsIgnoreCase applies, so equal keys <=> equalsIgnoreCase
+    private static String foldCase(String s) {
+        char[] chars = new char[s.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(s.charAt(i)));
+        }
+        return new String(chars);
+    }
+
+    /** One interned value and its case-insensitive code. */
+    public static final class Symbol {
+        private final String value;
+        private final int code;
+
+        private Symbol(String value, int code) {
+            this.value = value;
+            this.code = code;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+}